@@ -0,0 +1,87 @@
+package com.moviereview.backend.security;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tokens verified per second by the authentication filter's check.
+ *
+ * {@code perCallKey} is the former verification: the key and the parser
+ * were rebuilt for each claim and a token was parsed three times.
+ * {@code singleParse} verifies once with a prebuilt parser, and
+ * {@code cached} additionally remembers verified tokens, cycling through a
+ * set of users like a server with that many active sessions.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int SESSIONS = 1024;
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtils(0, new SimpleMeterRegistry());
+        cached = new JwtUtils(10_000, new SimpleMeterRegistry());
+        tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens[i] = uncached.generateToken("user" + i + "@example.com");
+        }
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (SESSIONS - 1);
+        return tokens[next];
+    }
+
+    @Benchmark
+    public boolean perCallKey() {
+        String token = nextToken();
+        String username = parse(token).getSubject();
+        return username.equals(parse(token).getSubject()) && !parse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return uncached.verify(nextToken()).getSubject();
+    }
+
+    @Benchmark
+    public String cached() {
+        return cached.verify(nextToken()).getSubject();
+    }
+
+    private static Claims parse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -2,6 +2,7 @@ package com.moviereview.backend.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -36,17 +37,20 @@ public class SecurityConfig {
 	private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
 	private final JwtAuthenticationFilter jwtAuthenticationFilter;
 	private final ClientRegistrationRepository clientRegistrationRepository;
+	private final int managementPort;
 
 	public SecurityConfig(CustomOAuth2UserService customOAuth2UserService,
 			com.moviereview.backend.service.CustomOidcUserService customOidcUserService,
 			OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler,
 			JwtAuthenticationFilter jwtAuthenticationFilter,
-			ClientRegistrationRepository clientRegistrationRepository) {
+			ClientRegistrationRepository clientRegistrationRepository,
+			@Value("${management.server.port:-1}") int managementPort) {
 		this.customOAuth2UserService = customOAuth2UserService;
 		this.customOidcUserService = customOidcUserService;
 		this.oAuth2LoginSuccessHandler = oAuth2LoginSuccessHandler;
 		this.jwtAuthenticationFilter = jwtAuthenticationFilter;
 		this.clientRegistrationRepository = clientRegistrationRepository;
+		this.managementPort = managementPort;
 	}
 
 	@Bean
@@ -56,8 +60,15 @@ public class SecurityConfig {
 		http.csrf(csrf -> csrf.disable());
 
 		http.authorizeHttpRequests(auth -> auth
-				.requestMatchers(HttpMethod.GET, "/api/users/**").permitAll()
-				.requestMatchers("/", "/login**", "/error**", "/auth/**", "/ws/**", "/api/movies/**").permitAll()
+				.requestMatchers(HttpMethod.GET, "/api/users/**", "/api/search").permitAll()
+				// Orchestrator probes carry no token
+				.requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**", "/livez", "/readyz")
+				.permitAll()
+				// Metrics are only served on the management port, which is bound to a private address
+				.requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+				.requestMatchers("/actuator/**").denyAll()
+				.requestMatchers("/", "/login**", "/error**", "/auth/**", "/ws/**", "/api/movies/**",
+						"/mock-tmdb/**").permitAll()
 				.anyRequest().authenticated());
 
 		http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -92,9 +103,10 @@ public class SecurityConfig {
 		return authorizationRequestResolver;
 	}
 
+	// Raising the strength rehashes passwords at their next login, see PasswordHasher
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength) {
+		return new BCryptPasswordEncoder(strength);
 	}
 
 	@Bean
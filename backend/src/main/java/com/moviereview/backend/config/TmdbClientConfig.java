@@ -0,0 +1,109 @@
+package com.moviereview.backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.moviereview.backend.service.AbortableRequestFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * HTTP transport for TMDB: a pooled, keep-alive Apache HttpClient with
+ * bounded connections per route, connect/read/idle timeouts and transparent
+ * gzip decoding. Pool utilisation and connection lease wait time are
+ * published as metrics.
+ */
+@Configuration
+public class TmdbClientConfig {
+
+    @Value("${tmdb.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${tmdb.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${tmdb.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${tmdb.http.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${tmdb.http.pool-timeout:1s}")
+    private Duration poolTimeout;
+
+    @Value("${tmdb.http.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    @Bean
+    public CloseableHttpClient tmdbHttpClient(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "tmdb").bindTo(meterRegistry);
+
+        Timer poolWait = Timer.builder("tmdb.http.pool.wait")
+                .description("Time spent waiting to lease a pooled TMDB connection")
+                .register(meterRegistry);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "pool-wait", timePoolLease(poolWait))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate tmdbRestTemplate(@Qualifier("tmdbHttpClient") CloseableHttpClient tmdbHttpClient) {
+        // Lets TmdbClient abort requests it no longer waits for
+        return new RestTemplate(new AbortableRequestFactory(tmdbHttpClient));
+    }
+
+    /**
+     * Leases the connection ahead of the connect step so the time spent
+     * waiting on the pool can be measured on its own; the connect step then
+     * finds the endpoint already acquired.
+     */
+    private static ExecChainHandler timePoolLease(Timer poolWait) {
+        return (request, scope, chain) -> {
+            if (!scope.execRuntime.isEndpointAcquired()) {
+                long start = System.nanoTime();
+                try {
+                    scope.execRuntime.acquireEndpoint(scope.exchangeId, scope.route,
+                            scope.clientContext.getUserToken(), scope.clientContext);
+                } finally {
+                    poolWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            return chain.proceed(request, scope);
+        };
+    }
+}
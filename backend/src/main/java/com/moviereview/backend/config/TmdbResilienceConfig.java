@@ -0,0 +1,104 @@
+package com.moviereview.backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Isolation for TMDB calls: a dedicated, bounded thread pool (bulkhead) so a
+ * slow TMDB cannot tie up request threads, and a circuit breaker that opens
+ * on a high error or slow-call rate so calls fail fast while TMDB recovers.
+ */
+@Configuration
+public class TmdbResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbResilienceConfig.class);
+
+    @Value("${tmdb.bulkhead.max-threads:20}")
+    private int maxThreads;
+
+    @Value("${tmdb.bulkhead.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${tmdb.breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${tmdb.breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+
+    @Value("${tmdb.breaker.slow-call-duration:2s}")
+    private Duration slowCallDuration;
+
+    @Value("${tmdb.breaker.window-size:50}")
+    private int windowSize;
+
+    @Value("${tmdb.breaker.open-duration:30s}")
+    private Duration openDuration;
+
+    @Bean
+    public CircuitBreaker tmdbCircuitBreaker(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(Math.min(windowSize, 20))
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(5)
+                // A 404 or 400 is an answer, not a sign of TMDB being unhealthy; rate limiting is
+                .recordException(e -> !(e instanceof HttpClientErrorException)
+                        || e instanceof HttpClientErrorException.TooManyRequests)
+                // Calls TmdbClient aborted itself (a lost hedge, a caller timeout)
+                .ignoreExceptions(CancellationException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker("tmdb");
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            logger.warn("TMDB circuit breaker {}", event.getStateTransition());
+            Counter.builder("tmdb.breaker.transitions")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        return circuitBreaker;
+    }
+
+    @Bean
+    public ThreadPoolBulkhead tmdbBulkhead(MeterRegistry meterRegistry) {
+        ThreadPoolBulkheadConfig config = ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(Math.max(1, maxThreads / 2))
+                .maxThreadPoolSize(maxThreads)
+                .queueCapacity(queueCapacity)
+                .writableStackTraceEnabled(false)
+                .build();
+        ThreadPoolBulkheadRegistry registry = ThreadPoolBulkheadRegistry.of(config);
+        TaggedThreadPoolBulkheadMetrics.ofThreadPoolBulkheadRegistry(registry).bindTo(meterRegistry);
+
+        ThreadPoolBulkhead bulkhead = registry.bulkhead("tmdb");
+        Counter rejected = Counter.builder("tmdb.bulkhead.rejected")
+                .description("TMDB calls rejected because the bulkhead was full")
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+        return bulkhead;
+    }
+}
@@ -0,0 +1,28 @@
+package com.moviereview.backend.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUserArgumentResolver;
+import com.moviereview.backend.service.UserCache;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    public WebMvcConfig(UserRepository userRepository, UserCache userCache) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(userRepository, userCache));
+    }
+}
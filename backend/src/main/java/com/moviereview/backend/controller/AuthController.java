@@ -1,12 +1,15 @@
 package com.moviereview.backend.controller;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,69 +19,125 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.JwtUser;
 import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.security.PasswordHasher;
 import com.moviereview.backend.service.CloudinaryService;
+import com.moviereview.backend.service.UserCache;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHasher passwordHasher;
     private final JwtUtils jwtUtils;
     private final CloudinaryService cloudinaryService;
+    private final UserCache userCache;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder,
-            AuthenticationManager authenticationManager, JwtUtils jwtUtils, CloudinaryService cloudinaryService) {
+    public AuthController(UserRepository userRepository, PasswordHasher passwordHasher, JwtUtils jwtUtils,
+            CloudinaryService cloudinaryService, UserCache userCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.authenticationManager = authenticationManager;
+        this.passwordHasher = passwordHasher;
         this.jwtUtils = jwtUtils;
         this.cloudinaryService = cloudinaryService;
+        this.userCache = userCache;
     }
 
+    // Hashing runs on the PasswordHasher pool and the request thread is released meanwhile;
+    // saving the user and signing the token happen on the hasher's completion threads
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest request) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            return ResponseEntity.badRequest().body("Email already exists");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email already exists"));
+        }
+        try {
+            return passwordHasher.encode(request.getPassword()).thenApply(hash -> {
+                User user = new User();
+                user.setEmail(request.getEmail());
+                user.setPassword(hash);
+                user.setName(request.getName());
+                user.setProvider("local");
+                userRepository.save(user);
+
+                String token = jwtUtils.generateToken(user);
+                return ResponseEntity.ok(Map.of("token", token));
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         }
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setName(request.getName());
-        user.setProvider("local");
-        userRepository.save(user);
-
-        String token = jwtUtils.generateToken(user.getEmail());
-        return ResponseEntity.ok(Map.of("token", token));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        String hash = user != null ? user.getPassword() : null;
+        try {
+            return passwordHasher.matches(request.getPassword(), hash).thenApply(matches -> {
+                if (!matches) {
+                    return ResponseEntity.status(401).body("Invalid credentials");
+                }
+                if (passwordHasher.needsRehash(hash)) {
+                    rehash(user, hash, request.getPassword());
+                }
+                // The token carries the user id, so later requests need no lookup
+                return ResponseEntity.ok(Map.of("token", jwtUtils.generateToken(user)));
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+    }
 
-        if (authentication.isAuthenticated()) {
-            String token = jwtUtils.generateToken(request.getEmail());
-            return ResponseEntity.ok(Map.of("token", token));
-        } else {
-            return ResponseEntity.status(401).body("Invalid credentials");
+    /**
+     * Replaces a hash made with an outdated work factor, in the background;
+     * if the pool is busy it is simply tried again at the next login.
+     */
+    private void rehash(User user, String oldHash, String rawPassword) {
+        try {
+            passwordHasher.encode(rawPassword)
+                    .thenAccept(newHash -> userRepository.updatePasswordHash(user.getId(), oldHash, newHash))
+                    .exceptionally(e -> {
+                        logger.warn("Could not rehash password of user {}: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Password hashing pool busy, not rehashing password of user {}", user.getId());
         }
     }
 
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-in attempts, please retry shortly");
+    }
+
     @org.springframework.web.bind.annotation.GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
         if (authentication == null) {
             return ResponseEntity.status(401).build();
         }
-        // If authenticated via JWT, principal is UserDetails (from
-        // CustomUserDetailsService)
+        // If authenticated via JWT, principal is a JwtUser built from the token's
+        // claims (or UserDetails from CustomUserDetailsService for older tokens)
         // If via OAuth, it might be OAuth2User, but we issue JWT after OAuth login, so
         // subsequent requests use JWT.
         // So principal should be UserDetails (User object from Spring Security).
         // But we want our User entity details (like name, avatarUrl).
 
+        if (authentication.getPrincipal() instanceof JwtUser principal) {
+            // Served from the user cache, which is invalidated by profile updates
+            return userCache.get(principal.getId())
+                    .map(user -> ResponseEntity.ok(Map.of(
+                            "id", user.id(),
+                            "name", user.name() != null ? user.name() : "",
+                            "email", user.email(),
+                            "picture", user.avatarUrl() != null ? user.avatarUrl() : "",
+                            "bio", user.bio() != null ? user.bio() : "",
+                            "gender", user.gender() != null ? user.gender() : "")))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
         String email;
         if (authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
             email = ((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal())
@@ -0,0 +1,60 @@
+package com.moviereview.backend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.moviereview.backend.service.EncodedBody;
+
+/**
+ * Writes pre-encoded JSON bodies, picking the gzip variant when the client
+ * accepts it. The bytes go out unchanged, so nothing is serialized or
+ * compressed per request.
+ */
+final class EncodedResponses {
+
+    private EncodedResponses() {
+    }
+
+    /**
+     * Completes a 304 set up by {@link WebRequest#checkNotModified}, which
+     * only adds the ETag. The 304 has to repeat the Cache-Control and Vary
+     * of the full response, or a shared cache could keep the revalidated
+     * entry without them. Returns null, as the response is already done.
+     */
+    static <T> ResponseEntity<T> notModified(WebRequest request, CacheControl cacheControl) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            servletRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return null;
+    }
+
+    static ResponseEntity<byte[]> body(ResponseEntity.BodyBuilder builder, EncodedBody body, WebRequest request) {
+        builder.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return builder.body(body.json());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            // gzip;q=0 explicitly refuses it
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            return !refused;
+        }
+        return false;
+    }
+}
@@ -2,10 +2,10 @@ package com.moviereview.backend.controller;
 
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Like;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.security.CurrentUser;
+import com.moviereview.backend.service.AutocompleteIndex;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,20 +17,16 @@ import java.util.Map;
 public class LikeController {
 
     private final LikeRepository likeRepository;
-    private final UserRepository userRepository;
+    private final AutocompleteIndex autocompleteIndex;
 
-    public LikeController(LikeRepository likeRepository, UserRepository userRepository) {
+    public LikeController(LikeRepository likeRepository, AutocompleteIndex autocompleteIndex) {
         this.likeRepository = likeRepository;
-        this.userRepository = userRepository;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     @GetMapping
-    public ResponseEntity<List<Like>> getLikes(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return ResponseEntity.ok(likeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Like>> getLikes(@CurrentUser Long userId) {
+        return ResponseEntity.ok(likeRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     @GetMapping("/user/{userId}")
@@ -39,20 +35,14 @@ public class LikeController {
     }
 
     @GetMapping("/{movieId}/check")
-    public ResponseEntity<Map<String, Boolean>> checkLikeStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = likeRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<Map<String, Boolean>> checkLikeStatus(@PathVariable String movieId, @CurrentUser Long userId) {
+        boolean exists = likeRepository.existsByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("isLiked", exists));
     }
 
     @PostMapping
-    public ResponseEntity<?> addToLikes(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToLikes(@RequestBody Map<String, Object> payload,
+            @CurrentUser(reference = true) User user) {
 
         String movieId = String.valueOf(payload.get("movieId"));
         if (likeRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
@@ -66,18 +56,15 @@ public class LikeController {
 
         Like like = new Like(user, movieId, title, posterPath, voteAverage, releaseDate);
         likeRepository.save(like);
+        autocompleteIndex.addActivity(movieId, title, releaseDate, posterPath, 1);
 
         return ResponseEntity.ok(Map.of("message", "Added to likes"));
     }
 
     @DeleteMapping("/{movieId}")
     @Transactional
-    public ResponseEntity<?> removeFromLikes(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        likeRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromLikes(@PathVariable String movieId, @CurrentUser Long userId) {
+        likeRepository.deleteByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from likes"));
     }
 }
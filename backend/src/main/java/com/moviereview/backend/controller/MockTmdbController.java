@@ -0,0 +1,188 @@
+package com.moviereview.backend.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local stand-in for the TMDB API, serving the recorded fixtures under
+ * {@code mock-tmdb/} so the backend can be load tested without network
+ * access. Only registered with {@code tmdb.mock.enabled=true}; point
+ * {@code tmdb.api.url} at {@code http://localhost:8080/mock-tmdb} to use it.
+ *
+ * Every response is delayed according to {@code tmdb.mock.latency}:
+ * {@code fixed} waits exactly {@code tmdb.mock.latency-median},
+ * {@code lognormal} draws around that median with {@code tmdb.mock.latency-sigma},
+ * and {@code long-tail} is lognormal with a share of
+ * {@code tmdb.mock.tail-probability} requests taking {@code tmdb.mock.tail-latency}.
+ * A share of {@code tmdb.mock.error-rate} requests fails with 503, and
+ * requests above {@code tmdb.mock.rate-limit} per second get 429 like TMDB's
+ * own rate limiting. Delays are scheduled rather than slept, so a slow mock
+ * does not hold request threads the measured endpoints need.
+ */
+@RestController
+@RequestMapping("/mock-tmdb")
+@ConditionalOnProperty(name = "tmdb.mock.enabled", havingValue = "true")
+public class MockTmdbController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MockTmdbController.class);
+
+    private static final String[] FIXTURES = { "movie", "person", "person-credits", "search-movie",
+            "search-person", "trending" };
+
+    private final String latency;
+    private final long medianMillis;
+    private final double sigma;
+    private final double tailProbability;
+    private final long tailMillis;
+    private final double errorRate;
+    private final int rateLimit;
+    private final Map<String, String> fixtures = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private long windowStart;
+    private int windowCount;
+
+    public MockTmdbController(@Value("${tmdb.mock.latency:fixed}") String latency,
+            @Value("${tmdb.mock.latency-median:50ms}") Duration median,
+            @Value("${tmdb.mock.latency-sigma:0.5}") double sigma,
+            @Value("${tmdb.mock.tail-probability:0.01}") double tailProbability,
+            @Value("${tmdb.mock.tail-latency:2s}") Duration tailLatency,
+            @Value("${tmdb.mock.error-rate:0}") double errorRate,
+            @Value("${tmdb.mock.rate-limit:0}") int rateLimit) throws IOException {
+        this.latency = latency;
+        this.medianMillis = median.toMillis();
+        this.sigma = sigma;
+        this.tailProbability = tailProbability;
+        this.tailMillis = tailLatency.toMillis();
+        this.errorRate = errorRate;
+        this.rateLimit = rateLimit;
+        for (String name : FIXTURES) {
+            try (InputStream in = new ClassPathResource("mock-tmdb/" + name + ".json").getInputStream()) {
+                fixtures.put(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mock-tmdb");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.warn("Serving mock TMDB responses at /mock-tmdb ({} latency, median {} ms)", latency, medianMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @GetMapping("/movie/{id}")
+    public CompletableFuture<ResponseEntity<String>> getMovie(@PathVariable String id) {
+        return respond("movie", id, 1);
+    }
+
+    @GetMapping("/person/{id}")
+    public CompletableFuture<ResponseEntity<String>> getPerson(@PathVariable String id) {
+        return respond("person", id, 1);
+    }
+
+    @GetMapping("/person/{id}/movie_credits")
+    public CompletableFuture<ResponseEntity<String>> getPersonMovieCredits(@PathVariable String id) {
+        return respond("person-credits", id, 1);
+    }
+
+    @GetMapping("/search/movie")
+    public CompletableFuture<ResponseEntity<String>> searchMovies(@RequestParam(defaultValue = "1") int page) {
+        return respond("search-movie", "0", page);
+    }
+
+    @GetMapping("/search/person")
+    public CompletableFuture<ResponseEntity<String>> searchPeople(@RequestParam(defaultValue = "1") int page) {
+        return respond("search-person", "0", page);
+    }
+
+    @GetMapping("/trending/movie/week")
+    public CompletableFuture<ResponseEntity<String>> getTrendingMovies() {
+        return respond("trending", "0", 1);
+    }
+
+    private CompletableFuture<ResponseEntity<String>> respond(String fixture, String id, int page) {
+        ResponseEntity<String> response;
+        if (!acquire()) {
+            // Rejected straight away, as TMDB does
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status_code\":25,\"status_message\":\"Your request count is over the allowed limit.\"}"));
+        } else if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status_code\":43,\"status_message\":\"Service offline.\"}");
+        } else if (!id.chars().allMatch(Character::isDigit)) {
+            response = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status_code\":34,\"status_message\":\"The resource you requested could not be found.\"}");
+        } else {
+            response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(fixtures.get(fixture).replace("{{id}}", id).replace("{{page}}", String.valueOf(page)));
+        }
+
+        CompletableFuture<ResponseEntity<String>> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(response), delayMillis(), TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    long delayMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (latency) {
+            case "lognormal":
+                return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+            case "long-tail":
+                if (random.nextDouble() < tailProbability) {
+                    return tailMillis;
+                }
+                return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+            default:
+                return medianMillis;
+        }
+    }
+
+    /**
+     * Counts the request against the current one-second window.
+     */
+    private synchronized boolean acquire() {
+        if (rateLimit <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= 1000) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        return ++windowCount <= rateLimit;
+    }
+}
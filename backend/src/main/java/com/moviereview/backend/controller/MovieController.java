@@ -1,31 +1,71 @@
 package com.moviereview.backend.controller;
 
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.moviereview.backend.service.AutocompleteIndex;
+import com.moviereview.backend.service.EncodedBody;
+import com.moviereview.backend.service.Fieldset;
+import com.moviereview.backend.service.MovieBatchService;
+import com.moviereview.backend.service.MovieSearchService;
+import com.moviereview.backend.service.ResponseBodyCache;
 import com.moviereview.backend.service.TmdbService;
+import com.moviereview.backend.service.TrendingMoviesService;
 import com.moviereview.backend.repository.*;
 import com.moviereview.backend.model.User;
+import com.moviereview.backend.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/movies")
 public class MovieController {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
+    @Value("${tmdb.http.max-age.movie:5m}")
+    private Duration movieMaxAge = Duration.ofMinutes(5);
+
+    @Value("${tmdb.http.max-age.person:1h}")
+    private Duration personMaxAge = Duration.ofHours(1);
+
+    @Value("${tmdb.http.max-age.search:5m}")
+    private Duration searchMaxAge = Duration.ofMinutes(5);
+
     private final TmdbService tmdbService;
-    private final UserRepository userRepository;
+    private final TrendingMoviesService trendingMoviesService;
+    private final MovieSearchService movieSearchService;
+    private final AutocompleteIndex autocompleteIndex;
+    private final MovieBatchService movieBatchService;
+    private final ResponseBodyCache responseBodyCache;
     private final LikeRepository likeRepository;
     private final WatchedRepository watchedRepository;
     private final WatchlistRepository watchlistRepository;
 
-    public MovieController(TmdbService tmdbService, UserRepository userRepository, LikeRepository likeRepository,
-            WatchedRepository watchedRepository, WatchlistRepository watchlistRepository) {
+    public MovieController(TmdbService tmdbService, TrendingMoviesService trendingMoviesService,
+            MovieSearchService movieSearchService, AutocompleteIndex autocompleteIndex,
+            MovieBatchService movieBatchService, ResponseBodyCache responseBodyCache,
+            LikeRepository likeRepository, WatchedRepository watchedRepository,
+            WatchlistRepository watchlistRepository) {
         this.tmdbService = tmdbService;
-        this.userRepository = userRepository;
+        this.trendingMoviesService = trendingMoviesService;
+        this.movieSearchService = movieSearchService;
+        this.autocompleteIndex = autocompleteIndex;
+        this.movieBatchService = movieBatchService;
+        this.responseBodyCache = responseBodyCache;
         this.likeRepository = likeRepository;
         this.watchedRepository = watchedRepository;
         this.watchlistRepository = watchlistRepository;
@@ -33,13 +73,7 @@ public class MovieController {
 
     @GetMapping("/{id}/friend-activity")
     public ResponseEntity<List<Map<String, Object>>> getFriendActivity(@PathVariable String id,
-            Authentication authentication) {
-        if (authentication == null) {
-            return ResponseEntity.ok(List.of());
-        }
-
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email).orElse(null);
+            @CurrentUser(required = false) User currentUser) {
         if (currentUser == null) {
             return ResponseEntity.ok(List.of());
         }
@@ -71,67 +105,158 @@ public class MovieController {
     }
 
     @GetMapping("/trending")
-    public ResponseEntity<List<Map<String, Object>>> getTrendingMovies() {
-        return ResponseEntity.ok(tmdbService.getTrendingMovies());
+    public ResponseEntity<byte[]> getTrendingMovies(@RequestParam(required = false) String fields,
+            WebRequest request) {
+        // Served from the pre-serialized snapshot kept fresh in the background
+        TrendingMoviesService.Snapshot snapshot = trendingMoviesService.getSnapshot();
+        if (snapshot == null) {
+            // Not loaded yet; an empty list must not be cached as the answer
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        Fieldset fieldset = Fieldset.parse(fields);
+        EncodedBody body = fieldset == null ? snapshot.body()
+                : responseBodyCache.get("trending:" + snapshot.refreshedAt(), snapshot.movies(), fieldset);
+        return EncodedResponses.body(ResponseEntity.ok(), body, request);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getMovie(@PathVariable String id) {
-        Map<String, Object> movie = tmdbService.getMovie(id);
-        if (movie != null) {
-            return ResponseEntity.ok(movie);
-        } else {
-            return ResponseEntity.notFound().build();
+    @GetMapping("/batch")
+    public ResponseEntity<?> getMoviesBatch(@RequestParam List<String> ids) {
+        return batch(ids);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> postMoviesBatch(@RequestBody Map<String, List<Object>> payload) {
+        List<Object> ids = payload.get("ids");
+        if (ids == null) {
+            return ResponseEntity.badRequest().body("Missing ids");
         }
+        return batch(ids.stream().map(String::valueOf).toList());
     }
 
-    @GetMapping("/search")
-    public ResponseEntity<List<Map<String, Object>>> searchMovies(@RequestParam String query) {
-        Map<String, Object> result = tmdbService.searchMovies(query, 1);
-        if (result != null && result.containsKey("results")) {
-            return ResponseEntity.ok((List<Map<String, Object>>) result.get("results"));
+    private ResponseEntity<?> batch(List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " ids per batch");
         }
-        return ResponseEntity.ok(List.of());
+        return ResponseEntity.ok(movieBatchService.getMovies(ids));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getMovie(@PathVariable String id, @RequestParam(required = false) String fields,
+            WebRequest request) {
+        tmdbService.recordAccess("movie:" + id);
+        return tmdbResponse("movie:" + id, expected -> tmdbService.movieTag(id, expected),
+                () -> tmdbService.getMovie(id), value -> value, Fieldset.parse(fields), movieMaxAge, request);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteIndex.Suggestion>> autocomplete(@RequestParam String query,
+            @RequestParam(required = false) String type, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteIndex.suggest(query, type, Math.min(limit, 20)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMovies(@RequestParam String query,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        TmdbPage<TmdbMovieSummary> result = movieSearchService.searchMovies(query, 1);
+        List<TmdbMovieSummary> movies = result != null && result.results() != null ? result.results() : List.of();
+        return sparse(movies, Fieldset.parse(fields), request);
     }
 
     @GetMapping("/search/paginated")
-    public ResponseEntity<Map<String, Object>> searchMoviesPaginated(@RequestParam String query,
-            @RequestParam(defaultValue = "1") int page) {
-        return ResponseEntity.ok(tmdbService.searchMovies(query, page));
+    public ResponseEntity<?> searchMoviesPaginated(@RequestParam String query,
+            @RequestParam(defaultValue = "1") int page, @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return sparse(movieSearchService.searchMovies(query, page), Fieldset.parse(fields), request);
     }
 
-    @GetMapping("/people/search")
-    public ResponseEntity<List<Map<String, Object>>> searchPeople(@RequestParam String query) {
-        Map<String, Object> result = tmdbService.searchPeople(query, 1);
-        if (result != null && result.containsKey("results")) {
-            return ResponseEntity.ok((List<Map<String, Object>>) result.get("results"));
+    /**
+     * Search results may come from the local catalog and have no version to
+     * cache a rendering by, so selected fields are pruned per request.
+     */
+    private ResponseEntity<?> sparse(Object value, Fieldset fields, WebRequest request) {
+        if (fields == null || value == null) {
+            return ResponseEntity.ok(value);
         }
-        return ResponseEntity.ok(List.of());
+        return EncodedResponses.body(ResponseEntity.ok(), responseBodyCache.get(null, value, fields), request);
+    }
+
+    @GetMapping("/people/search")
+    public ResponseEntity<byte[]> searchPeople(@RequestParam String query,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        return peopleSearchResponse("people-search:", query, 1,
+                page -> page.results() != null ? page.results() : List.of(), fields, request);
     }
 
     @GetMapping("/people/search/paginated")
-    public ResponseEntity<Map<String, Object>> searchPeoplePaginated(@RequestParam String query,
-            @RequestParam(defaultValue = "1") int page) {
-        return ResponseEntity.ok(tmdbService.searchPeople(query, page));
+    public ResponseEntity<byte[]> searchPeoplePaginated(@RequestParam String query,
+            @RequestParam(defaultValue = "1") int page, @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return peopleSearchResponse("people-search-page:", query, page, result -> result, fields, request);
+    }
+
+    /**
+     * People search results go out exactly as cached: the rendered body is
+     * reused for as long as the underlying TMDB page is cached, so repeat
+     * searches skip Jackson entirely. A failed search is answered with an
+     * empty page and not cached.
+     */
+    private ResponseEntity<byte[]> peopleSearchResponse(String prefix, String query, int page,
+            Function<TmdbPage<TmdbPersonSummary>, Object> render, String fields, WebRequest request) {
+        return tmdbResponse(prefix + page + ":" + query,
+                expected -> tmdbService.peopleSearchTag(query, page, expected),
+                () -> {
+                    TmdbPage<TmdbPersonSummary> result = tmdbService.searchPeople(query, page);
+                    return result != null ? result : new TmdbPage<TmdbPersonSummary>(page, List.of(), 0, 0);
+                },
+                render, Fieldset.parse(fields), searchMaxAge, request);
     }
 
     @GetMapping("/person/{id}")
-    public ResponseEntity<Map<String, Object>> getPerson(@PathVariable String id) {
-        Map<String, Object> person = tmdbService.getPerson(id);
-        if (person != null) {
-            return ResponseEntity.ok(person);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<byte[]> getPerson(@PathVariable String id, WebRequest request) {
+        tmdbService.recordAccess("person:" + id);
+        return tmdbResponse("person:" + id, expected -> tmdbService.personTag(id, expected),
+                () -> tmdbService.getPerson(id), value -> value, null, personMaxAge, request);
     }
 
     @GetMapping("/person/{id}/movie_credits")
-    public ResponseEntity<Map<String, Object>> getPersonMovieCredits(@PathVariable String id) {
-        Map<String, Object> credits = tmdbService.getPersonMovieCredits(id);
-        if (credits != null) {
-            return ResponseEntity.ok(credits);
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<byte[]> getPersonMovieCredits(@PathVariable String id, WebRequest request) {
+        return tmdbResponse("person-credits:" + id, expected -> tmdbService.personCreditsTag(id, expected),
+                () -> tmdbService.getPersonMovieCredits(id), value -> value, null, personMaxAge, request);
+    }
+
+    /**
+     * Serves a TMDB-derived value. Repeat views are answered with 304 from
+     * the cache entry's version alone, and while that version holds the
+     * rendered body is reused, so neither costs a lookup or serialization.
+     * Responses are public because they are the same for every user; after
+     * {@code maxAge} browsers revalidate with If-None-Match. {@code render}
+     * picks what of the loaded value goes into the body, and {@code fields}
+     * (if not null) prunes it to a sparse fieldset.
+     */
+    private <T> ResponseEntity<byte[]> tmdbResponse(String key, Function<Object, String> tag, Supplier<T> load,
+            Function<? super T, Object> render, Fieldset fields, Duration maxAge, WebRequest request) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        String version = tag.apply(null);
+        if (version != null && request.checkNotModified(Fieldset.etag(version, fields))) {
+            return EncodedResponses.notModified(request, cacheControl);
+        }
+        EncodedBody body = version != null ? responseBodyCache.getIfPresent(key + ":" + version, fields) : null;
+        if (body == null) {
+            T value = load.get();
+            if (value == null) {
+                return ResponseEntity.notFound().build();
+            }
+            version = tag.apply(value);
+            body = responseBodyCache.get(version != null ? key + ":" + version : null, render.apply(value),
+                    fields);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(cacheControl);
+        if (version != null) {
+            builder.eTag(Fieldset.etag(version, fields));
         }
+        return EncodedResponses.body(builder, body, request);
     }
 }
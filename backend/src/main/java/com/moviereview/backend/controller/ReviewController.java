@@ -7,9 +7,9 @@ import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.LikeRepository;
 import com.moviereview.backend.repository.ReviewLikeRepository;
 import com.moviereview.backend.repository.ReviewRepository;
-import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUser;
+import com.moviereview.backend.service.AutocompleteIndex;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,26 +24,22 @@ import java.util.Optional;
 public class ReviewController {
 
     private final ReviewRepository reviewRepository;
-    private final UserRepository userRepository;
     private final LikeRepository likeRepository;
     private final ReviewLikeRepository reviewLikeRepository;
+    private final AutocompleteIndex autocompleteIndex;
 
-    public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository,
-            LikeRepository likeRepository, ReviewLikeRepository reviewLikeRepository) {
+    public ReviewController(ReviewRepository reviewRepository, LikeRepository likeRepository,
+            ReviewLikeRepository reviewLikeRepository, AutocompleteIndex autocompleteIndex) {
         this.reviewRepository = reviewRepository;
-        this.userRepository = userRepository;
         this.likeRepository = likeRepository;
         this.reviewLikeRepository = reviewLikeRepository;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     @PostMapping("/{reviewId}/like")
     @Transactional
-    public ResponseEntity<?> likeReview(@PathVariable Long reviewId, Authentication authentication) {
+    public ResponseEntity<?> likeReview(@PathVariable Long reviewId, @CurrentUser(reference = true) User user) {
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             Review review = reviewRepository.findById(reviewId)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
 
@@ -63,13 +59,9 @@ public class ReviewController {
 
     @DeleteMapping("/{reviewId}/like")
     @Transactional
-    public ResponseEntity<?> unlikeReview(@PathVariable Long reviewId, Authentication authentication) {
+    public ResponseEntity<?> unlikeReview(@PathVariable Long reviewId, @CurrentUser Long userId) {
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            reviewLikeRepository.deleteByUserIdAndReviewId(user.getId(), reviewId);
+            reviewLikeRepository.deleteByUserIdAndReviewId(userId, reviewId);
 
             return ResponseEntity.ok(Map.of("message", "Review unliked"));
         } catch (Exception e) {
@@ -80,10 +72,7 @@ public class ReviewController {
 
     @PostMapping
     @Transactional
-    public ResponseEntity<?> createReview(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> createReview(@RequestBody Map<String, Object> payload, @CurrentUser User user) {
 
         String movieId = String.valueOf(payload.get("movieId"));
         List<Review> existingReviews = reviewRepository.findAllByUserIdAndMovieId(user.getId(), movieId);
@@ -153,14 +142,13 @@ public class ReviewController {
         }
 
         Review savedReview = reviewRepository.save(review);
+        autocompleteIndex.addActivity(movieId, review.getMovieTitle(), review.getMovieYear(),
+                review.getMoviePosterUrl(), 1);
         return ResponseEntity.ok(savedReview);
     }
 
     @GetMapping("/friends")
-    public ResponseEntity<List<Map<String, Object>>> getFriendReviews(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<List<Map<String, Object>>> getFriendReviews(@CurrentUser User user) {
 
         List<Long> followingIds = user.getFollowing().stream()
                 .map(User::getId)
@@ -200,15 +188,9 @@ public class ReviewController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getUserReviews(@PathVariable Long userId, Authentication authentication) {
+    public ResponseEntity<List<Map<String, Object>>> getUserReviews(@PathVariable Long userId,
+            @CurrentUser(required = false) Long currentUserId) {
         List<Review> reviews = reviewRepository.findByUserId(userId);
-        User currentUser = null;
-        if (authentication != null) {
-            String email = authentication.getName();
-            currentUser = userRepository.findByEmail(email).orElse(null);
-        }
-
-        User finalCurrentUser = currentUser;
         List<Map<String, Object>> result = reviews.stream().map(review -> {
             Map<String, Object> map = new HashMap<>();
             map.put("id", review.getId());
@@ -233,8 +215,8 @@ public class ReviewController {
             map.put("isLiked", isLiked); // This is "did the reviewer like the movie?"
 
             boolean isReviewLiked = false;
-            if (finalCurrentUser != null) {
-                isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(finalCurrentUser.getId(), review.getId());
+            if (currentUserId != null) {
+                isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(currentUserId, review.getId());
             }
             map.put("isReviewLiked", isReviewLiked);
 
@@ -249,13 +231,9 @@ public class ReviewController {
 
     @GetMapping("/movie/{movieId}/check")
     @Transactional
-    public ResponseEntity<?> checkReviewStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(user.getId(), movieId.trim());
-        Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(user.getId(), movieId.trim());
+    public ResponseEntity<?> checkReviewStatus(@PathVariable String movieId, @CurrentUser Long userId) {
+        List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(userId, movieId.trim());
+        Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(userId, movieId.trim());
 
         Map<String, Object> response = new HashMap<>();
 
@@ -277,7 +255,7 @@ public class ReviewController {
             response.put("reviewId", review.getId());
             response.put("review", review);
 
-            boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(user.getId(), review.getId());
+            boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(userId, review.getId());
             response.put("isReviewLiked", isReviewLiked);
 
             long reviewLikeCount = reviewLikeRepository.countByReviewId(review.getId());
@@ -297,7 +275,7 @@ public class ReviewController {
 
     @GetMapping("/user/{userId}/movie/{movieId}")
     public ResponseEntity<?> getUserReviewForMovie(@PathVariable Long userId, @PathVariable String movieId,
-            Authentication authentication) {
+            @CurrentUser(required = false) Long currentUserId) {
         List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(userId, movieId.trim());
         Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(userId, movieId.trim());
 
@@ -318,16 +296,9 @@ public class ReviewController {
             response.put("review", review);
 
             // Check if requesting user liked this review
-            if (authentication != null) {
-                String email = authentication.getName();
-                Optional<User> currentUserOpt = userRepository.findByEmail(email);
-                if (currentUserOpt.isPresent()) {
-                    boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(currentUserOpt.get().getId(),
-                            review.getId());
-                    response.put("isReviewLiked", isReviewLiked);
-                } else {
-                    response.put("isReviewLiked", false);
-                }
+            if (currentUserId != null) {
+                boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(currentUserId, review.getId());
+                response.put("isReviewLiked", isReviewLiked);
             } else {
                 response.put("isReviewLiked", false);
             }
@@ -0,0 +1,36 @@
+package com.moviereview.backend.controller;
+
+import com.moviereview.backend.service.MultiSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final MultiSearchService multiSearchService;
+
+    public SearchController(MultiSearchService multiSearchService) {
+        this.multiSearchService = multiSearchService;
+    }
+
+    /**
+     * Movies, people and users matching {@code q} in one response. Further
+     * pages of one section are fetched with {@code section} and that
+     * section's {@code nextCursor}.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam String q, @RequestParam(required = false) String section,
+            @RequestParam(required = false) String cursor) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("Missing query");
+        }
+        if (section != null && !MultiSearchService.SECTIONS.contains(section)) {
+            return ResponseEntity.badRequest().body("Unknown section: " + section);
+        }
+        return ResponseEntity.ok(multiSearchService.search(q.trim(), section, cursor));
+    }
+}
@@ -6,10 +6,17 @@ import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.NotificationRepository;
 import com.moviereview.backend.repository.ReviewRepository;
 import com.moviereview.backend.repository.MovieListRepository;
+import com.moviereview.backend.security.CurrentUser;
+import com.moviereview.backend.service.EncodedBody;
+import com.moviereview.backend.service.ProfileVersions;
+import com.moviereview.backend.service.ResponseBodyCache;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -28,17 +35,27 @@ public class UserController {
     private final ReviewRepository reviewRepository;
     private final MovieListRepository movieListRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ProfileVersions profileVersions;
+    private final ResponseBodyCache responseBodyCache;
+    private final TransactionTemplate readOnlyTransaction;
 
     public UserController(UserRepository userRepository,
             NotificationRepository notificationRepository,
             ReviewRepository reviewRepository,
             MovieListRepository movieListRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            SimpMessagingTemplate messagingTemplate,
+            ProfileVersions profileVersions,
+            ResponseBodyCache responseBodyCache,
+            PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
         this.reviewRepository = reviewRepository;
         this.movieListRepository = movieListRepository;
         this.messagingTemplate = messagingTemplate;
+        this.profileVersions = profileVersions;
+        this.responseBodyCache = responseBodyCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @GetMapping("/search")
@@ -55,22 +72,38 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    @Transactional(readOnly = true)
-    public ResponseEntity<?> getUserProfile(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id,
+            @CurrentUser(required = false) Long currentUserId, WebRequest request) {
+        // Checked before the transaction starts, so a repeat view never takes a database connection
+        String etag = profileVersions.etag(id, currentUserId);
+        // Profiles differ per viewer and change with any follow or review, so always revalidate
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(etag)) {
+            return EncodedResponses.notModified(request, cacheControl);
+        }
+        // A rendered body for this exact version is served without any database work
+        EncodedBody body = responseBodyCache.getIfPresent("profile:" + etag);
+        if (body == null) {
+            ResponseEntity<?> profile = readOnlyTransaction.execute(status -> buildUserProfile(id, currentUserId));
+            if (!profile.getStatusCode().is2xxSuccessful()) {
+                return profile;
+            }
+            body = responseBodyCache.get("profile:" + etag, profile.getBody());
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag);
+        return EncodedResponses.body(builder, body, request);
+    }
+
+    private ResponseEntity<?> buildUserProfile(Long id, Long currentUserId) {
         User targetUser = userRepository.findById(id).orElse(null);
         if (targetUser == null) {
             return ResponseEntity.notFound().build();
         }
 
-        User currentUser = null;
-        boolean isFollowing = false;
-        if (authentication != null) {
-            String email = authentication.getName();
-            currentUser = userRepository.findByEmail(email).orElse(null);
-            if (currentUser != null) {
-                isFollowing = targetUser.getFollowers().contains(currentUser);
-            }
-        }
+        boolean isFollowing = currentUserId != null
+                && targetUser.getFollowers().stream().anyMatch(follower -> currentUserId.equals(follower.getId()));
 
         long filmsCount = reviewRepository.countByUserId(targetUser.getId());
         long listsCount = movieListRepository.countByUserId(targetUser.getId());
@@ -92,10 +125,7 @@ public class UserController {
 
     @PostMapping("/{id}/follow")
     @Transactional
-    public ResponseEntity<?> followUser(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> followUser(@PathVariable Long id, @CurrentUser User currentUser) {
         User targetUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Target user not found"));
 
@@ -106,6 +136,8 @@ public class UserController {
         if (!targetUser.getFollowers().contains(currentUser)) {
             targetUser.getFollowers().add(currentUser);
             userRepository.save(targetUser);
+            profileVersions.touch(targetUser.getId());
+            profileVersions.touch(currentUser.getId());
 
             // Create Notification
             Notification notification = new Notification(
@@ -134,16 +166,15 @@ public class UserController {
 
     @PostMapping("/{id}/unfollow")
     @Transactional
-    public ResponseEntity<?> unfollowUser(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> unfollowUser(@PathVariable Long id, @CurrentUser User currentUser) {
         User targetUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Target user not found"));
 
         if (targetUser.getFollowers().contains(currentUser)) {
             targetUser.getFollowers().remove(currentUser);
             userRepository.save(targetUser);
+            profileVersions.touch(targetUser.getId());
+            profileVersions.touch(currentUser.getId());
         }
 
         return ResponseEntity.ok(Map.of("message", "Unfollowed successfully"));
@@ -2,10 +2,10 @@ package com.moviereview.backend.controller;
 
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Watched;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.security.CurrentUser;
+import com.moviereview.backend.service.AutocompleteIndex;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,23 +17,20 @@ import java.util.Map;
 public class WatchedController {
 
     private final WatchedRepository watchedRepository;
-    private final UserRepository userRepository;
     private final com.moviereview.backend.repository.WatchlistRepository watchlistRepository;
+    private final AutocompleteIndex autocompleteIndex;
 
-    public WatchedController(WatchedRepository watchedRepository, UserRepository userRepository,
-            com.moviereview.backend.repository.WatchlistRepository watchlistRepository) {
+    public WatchedController(WatchedRepository watchedRepository,
+            com.moviereview.backend.repository.WatchlistRepository watchlistRepository,
+            AutocompleteIndex autocompleteIndex) {
         this.watchedRepository = watchedRepository;
-        this.userRepository = userRepository;
         this.watchlistRepository = watchlistRepository;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     @GetMapping
-    public ResponseEntity<List<Watched>> getWatched(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return ResponseEntity.ok(watchedRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Watched>> getWatched(@CurrentUser Long userId) {
+        return ResponseEntity.ok(watchedRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     @GetMapping("/user/{userId}")
@@ -43,21 +40,15 @@ public class WatchedController {
 
     @GetMapping("/{movieId}/check")
     public ResponseEntity<Map<String, Boolean>> checkWatchedStatus(@PathVariable String movieId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = watchedRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+            @CurrentUser Long userId) {
+        boolean exists = watchedRepository.existsByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("isWatched", exists));
     }
 
     @PostMapping
     @Transactional
-    public ResponseEntity<?> addToWatched(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToWatched(@RequestBody Map<String, Object> payload,
+            @CurrentUser(reference = true) User user) {
 
         String movieId = String.valueOf(payload.get("movieId"));
         if (watchedRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
@@ -72,6 +63,7 @@ public class WatchedController {
 
         Watched watched = new Watched(user, movieId, title, posterPath, voteAverage, releaseDate);
         watchedRepository.save(watched);
+        autocompleteIndex.addActivity(movieId, title, releaseDate, posterPath, 1);
 
         // Automatically remove from watchlist if present
         watchlistRepository.findByUserIdAndMovieId(user.getId(), movieId)
@@ -82,12 +74,8 @@ public class WatchedController {
 
     @DeleteMapping("/{movieId}")
     @Transactional
-    public ResponseEntity<?> removeFromWatched(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        watchedRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromWatched(@PathVariable String movieId, @CurrentUser Long userId) {
+        watchedRepository.deleteByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from watched list"));
     }
 }
@@ -2,10 +2,10 @@ package com.moviereview.backend.controller;
 
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Watchlist;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.WatchlistRepository;
+import com.moviereview.backend.security.CurrentUser;
+import com.moviereview.backend.service.AutocompleteIndex;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,20 +17,16 @@ import java.util.Map;
 public class WatchlistController {
 
     private final WatchlistRepository watchlistRepository;
-    private final UserRepository userRepository;
+    private final AutocompleteIndex autocompleteIndex;
 
-    public WatchlistController(WatchlistRepository watchlistRepository, UserRepository userRepository) {
+    public WatchlistController(WatchlistRepository watchlistRepository, AutocompleteIndex autocompleteIndex) {
         this.watchlistRepository = watchlistRepository;
-        this.userRepository = userRepository;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     @GetMapping
-    public ResponseEntity<List<Watchlist>> getWatchlist(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return ResponseEntity.ok(watchlistRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Watchlist>> getWatchlist(@CurrentUser Long userId) {
+        return ResponseEntity.ok(watchlistRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     @GetMapping("/user/{userId}")
@@ -39,20 +35,14 @@ public class WatchlistController {
     }
 
     @GetMapping("/{movieId}/check")
-    public ResponseEntity<Map<String, Boolean>> checkWatchlistStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = watchlistRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<Map<String, Boolean>> checkWatchlistStatus(@PathVariable String movieId, @CurrentUser Long userId) {
+        boolean exists = watchlistRepository.existsByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("inWatchlist", exists));
     }
 
     @PostMapping
-    public ResponseEntity<?> addToWatchlist(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToWatchlist(@RequestBody Map<String, Object> payload,
+            @CurrentUser(reference = true) User user) {
 
         String movieId = String.valueOf(payload.get("movieId"));
         if (watchlistRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
@@ -66,18 +56,15 @@ public class WatchlistController {
 
         Watchlist watchlist = new Watchlist(user, movieId, title, posterPath, voteAverage, releaseDate);
         watchlistRepository.save(watchlist);
+        autocompleteIndex.addActivity(movieId, title, releaseDate, posterPath, 1);
 
         return ResponseEntity.ok(Map.of("message", "Added to watchlist"));
     }
 
     @DeleteMapping("/{movieId}")
     @Transactional
-    public ResponseEntity<?> removeFromWatchlist(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        watchlistRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromWatchlist(@PathVariable String movieId, @CurrentUser Long userId) {
+        watchlistRepository.deleteByUserIdAndMovieId(userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from watchlist"));
     }
 }
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "movie_lists")
+@EntityListeners(com.moviereview.backend.service.ProfileChangeListener.class)
 public class MovieList {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reviews")
+@EntityListeners(com.moviereview.backend.service.ProfileChangeListener.class)
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Review {
     @Id
@@ -8,6 +8,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@jakarta.persistence.EntityListeners(com.moviereview.backend.service.ProfileChangeListener.class)
 public class User {
 
     @Id
@@ -0,0 +1,13 @@
+package com.moviereview.backend.model.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * An entry of TMDB's movie or person change lists: the id of something that
+ * was edited in the queried date range.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbChange(
+        long id,
+        Boolean adult) {
+}
@@ -0,0 +1,80 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Cast and crew of a movie. Big productions list hundreds of people, so the
+ * lists are capped while parsing (see {@link TmdbProjection}); cast members
+ * past the cap are skipped without being materialized.
+ */
+@JsonDeserialize(using = TmdbCredits.Deserializer.class)
+public record TmdbCredits(List<CastMember> cast, List<CrewMember> crew) {
+
+    // Jobs the movie page features, kept regardless of the crew cap
+    private static final Set<String> KEY_JOBS = Set.of("Director", "Writer", "Screenplay", "Story",
+            "Producer", "Executive Producer", "Original Music Composer");
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CastMember(long id, String name, String character,
+            @JsonProperty("profile_path") String profilePath) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CrewMember(long id, String name, String job, String department,
+            @JsonProperty("profile_path") String profilePath) {
+    }
+
+    static class Deserializer extends JsonDeserializer<TmdbCredits> {
+
+        @Override
+        public TmdbCredits deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            TmdbProjection projection = TmdbProjection.of(ctxt);
+            List<CastMember> cast = new ArrayList<>();
+            List<CrewMember> crew = new ArrayList<>();
+            JsonDeserializer<Object> castDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(CastMember.class));
+            JsonDeserializer<Object> crewDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(CrewMember.class));
+
+            String field = p.currentToken() == JsonToken.FIELD_NAME ? p.currentName() : p.nextFieldName();
+            for (; field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if ("cast".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (TmdbProjection.withinLimit(cast.size(), projection.maxCast())) {
+                            cast.add((CastMember) castDeserializer.deserialize(p, ctxt));
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else if ("crew".equals(field) && token == JsonToken.START_ARRAY) {
+                    int others = 0;
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        CrewMember member = (CrewMember) crewDeserializer.deserialize(p, ctxt);
+                        if (KEY_JOBS.contains(member.job())) {
+                            crew.add(member);
+                        } else if (TmdbProjection.withinLimit(others, projection.maxCrew())) {
+                            crew.add(member);
+                            others++;
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return new TmdbCredits(List.copyOf(cast), List.copyOf(crew));
+        }
+    }
+}
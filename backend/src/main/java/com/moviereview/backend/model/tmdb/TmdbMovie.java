@@ -0,0 +1,55 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Movie details as shown on the movie page, with credits and release dates
+ * appended. Only the fields the frontend reads are kept.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TmdbMovie(
+        long id,
+        String title,
+        @JsonProperty("original_title") String originalTitle,
+        String tagline,
+        String overview,
+        @JsonProperty("release_date") String releaseDate,
+        Integer runtime,
+        @JsonProperty("vote_average") Double voteAverage,
+        @JsonProperty("vote_count") Integer voteCount,
+        @JsonProperty("poster_path") String posterPath,
+        @JsonProperty("backdrop_path") String backdropPath,
+        @JsonProperty("original_language") String originalLanguage,
+        List<Genre> genres,
+        @JsonProperty("spoken_languages") List<Language> spokenLanguages,
+        @JsonProperty("production_companies") List<Company> productionCompanies,
+        @JsonProperty("production_countries") List<Country> productionCountries,
+        TmdbCredits credits,
+        @JsonProperty("release_dates") TmdbReleaseDates releaseDates) {
+
+    public TmdbMovieSummary toSummary() {
+        return new TmdbMovieSummary(id, title, originalTitle, null, overview, releaseDate, posterPath, backdropPath,
+                voteAverage, voteCount, null);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Genre(long id, String name) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Language(@JsonProperty("iso_639_1") String code, @JsonProperty("english_name") String englishName) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Company(long id, String name) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Country(@JsonProperty("iso_3166_1") String code, String name) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.moviereview.backend.model.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A movie as listed in trending lists, search results and a person's
+ * "known for" entries. TV entries in "known for" carry a name instead of a
+ * title.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TmdbMovieSummary(
+        long id,
+        String title,
+        @JsonProperty("original_title") String originalTitle,
+        String name,
+        String overview,
+        @JsonProperty("release_date") String releaseDate,
+        @JsonProperty("poster_path") String posterPath,
+        @JsonProperty("backdrop_path") String backdropPath,
+        @JsonProperty("vote_average") Double voteAverage,
+        @JsonProperty("vote_count") Integer voteCount,
+        Double popularity) {
+}
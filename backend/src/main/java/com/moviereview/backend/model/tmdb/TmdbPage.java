@@ -0,0 +1,21 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One page of a TMDB list response (search results, trending).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbPage<T>(
+        int page,
+        List<T> results,
+        @JsonProperty("total_pages") int totalPages,
+        @JsonProperty("total_results") int totalResults) {
+
+    public boolean isEmpty() {
+        return results == null || results.isEmpty();
+    }
+}
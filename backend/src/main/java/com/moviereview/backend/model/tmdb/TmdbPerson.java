@@ -0,0 +1,26 @@
+package com.moviereview.backend.model.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Person details as shown on the person page.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TmdbPerson(
+        long id,
+        String name,
+        String biography,
+        String birthday,
+        String deathday,
+        @JsonProperty("place_of_birth") String placeOfBirth,
+        @JsonProperty("profile_path") String profilePath,
+        @JsonProperty("known_for_department") String knownForDepartment,
+        Double popularity) {
+
+    public TmdbPersonSummary toSummary() {
+        return new TmdbPersonSummary(id, name, profilePath, knownForDepartment, popularity, null);
+    }
+}
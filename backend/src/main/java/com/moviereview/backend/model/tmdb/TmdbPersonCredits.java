@@ -0,0 +1,28 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The movies a person played in (cast) or worked on (crew).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbPersonCredits(long id, List<Credit> cast, List<Credit> crew) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Credit(
+            long id,
+            String title,
+            @JsonProperty("release_date") String releaseDate,
+            @JsonProperty("poster_path") String posterPath,
+            @JsonProperty("vote_average") Double voteAverage,
+            Double popularity,
+            String character,
+            String job,
+            String department) {
+    }
+}
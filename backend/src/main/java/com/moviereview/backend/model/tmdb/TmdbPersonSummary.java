@@ -0,0 +1,21 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A person as listed in people search results.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TmdbPersonSummary(
+        long id,
+        String name,
+        @JsonProperty("profile_path") String profilePath,
+        @JsonProperty("known_for_department") String knownForDepartment,
+        Double popularity,
+        @JsonProperty("known_for") List<TmdbMovieSummary> knownFor) {
+}
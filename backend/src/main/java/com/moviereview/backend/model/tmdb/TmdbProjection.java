@@ -0,0 +1,30 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+/**
+ * Limits applied while TMDB responses are parsed. Passed to the deserializers
+ * as a reader attribute, see {@link #ATTRIBUTE}.
+ *
+ * @param maxCast maximum number of cast members kept per movie, 0 for all
+ * @param maxCrew maximum number of crew members kept per movie, 0 for all.
+ *                Directors, writers and producers are always kept.
+ * @param regions ISO 3166-1 codes whose release dates are kept, empty for all
+ */
+public record TmdbProjection(int maxCast, int maxCrew, Set<String> regions) {
+
+    public static final String ATTRIBUTE = TmdbProjection.class.getName();
+
+    public static final TmdbProjection UNLIMITED = new TmdbProjection(0, 0, Set.of());
+
+    static TmdbProjection of(DeserializationContext context) {
+        Object projection = context.getAttribute(ATTRIBUTE);
+        return projection instanceof TmdbProjection p ? p : UNLIMITED;
+    }
+
+    static boolean withinLimit(int count, int limit) {
+        return limit <= 0 || count < limit;
+    }
+}
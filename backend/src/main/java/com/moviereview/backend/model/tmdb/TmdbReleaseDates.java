@@ -0,0 +1,59 @@
+package com.moviereview.backend.model.tmdb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Release dates per country. When {@link TmdbProjection#regions()} is set,
+ * only those countries are kept.
+ */
+@JsonDeserialize(using = TmdbReleaseDates.Deserializer.class)
+public record TmdbReleaseDates(List<CountryReleases> results) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CountryReleases(@JsonProperty("iso_3166_1") String country,
+            @JsonProperty("release_dates") List<Release> releaseDates) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record Release(String certification, String note,
+            @JsonProperty("release_date") String releaseDate, int type) {
+    }
+
+    static class Deserializer extends JsonDeserializer<TmdbReleaseDates> {
+
+        @Override
+        public TmdbReleaseDates deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            TmdbProjection projection = TmdbProjection.of(ctxt);
+            List<CountryReleases> results = new ArrayList<>();
+            JsonDeserializer<Object> deserializer = ctxt.findRootValueDeserializer(ctxt.constructType(CountryReleases.class));
+
+            String field = p.currentToken() == JsonToken.FIELD_NAME ? p.currentName() : p.nextFieldName();
+            for (; field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if ("results".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        CountryReleases releases = (CountryReleases) deserializer.deserialize(p, ctxt);
+                        if (projection.regions().isEmpty() || projection.regions().contains(releases.country())) {
+                            results.add(releases);
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return new TmdbReleaseDates(List.copyOf(results));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 import java.util.Optional;
@@ -11,4 +12,8 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     boolean existsByUserIdAndMovieId(Long userId, String movieId);
     Optional<Like> findByUserIdAndMovieId(Long userId, String movieId);
     void deleteByUserIdAndMovieId(Long userId, String movieId);
+
+    @Query("select e.movieId as movieId, max(e.movieTitle) as title, max(e.posterPath) as posterPath, "
+            + "max(e.releaseDate) as releaseDate, count(e) as count from Like e group by e.movieId")
+    List<MovieActivityCount> countByMovie();
 }
@@ -0,0 +1,17 @@
+package com.moviereview.backend.repository;
+
+/**
+ * How many users have a movie in one of their lists, with the movie details
+ * saved alongside the entries.
+ */
+public interface MovieActivityCount {
+    String getMovieId();
+
+    String getTitle();
+
+    String getPosterPath();
+
+    String getReleaseDate();
+
+    long getCount();
+}
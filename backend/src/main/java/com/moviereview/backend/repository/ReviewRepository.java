@@ -2,6 +2,7 @@ package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.time.LocalDateTime;
 
@@ -21,4 +22,8 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByUserIdInOrderByCreatedAtDesc(List<Long> userIds);
 
     List<Review> findByTagsContaining(String tag);
+
+    @Query("select e.movieId as movieId, max(e.movieTitle) as title, max(e.moviePosterUrl) as posterPath, "
+            + "max(e.movieYear) as releaseDate, count(e) as count from Review e group by e.movieId")
+    List<MovieActivityCount> countByMovie();
 }
@@ -2,8 +2,14 @@ package com.moviereview.backend.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.moviereview.backend.model.User;
 import java.util.List;
@@ -13,4 +19,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     List<User> findByNameContainingIgnoreCase(String name);
+
+    Slice<User> findByNameContainingIgnoreCaseOrderByName(String name, Pageable pageable);
+
+    // Replaces the hash only if it is still the one that was checked, so a concurrent change is kept
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -2,10 +2,15 @@ package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Watched;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface WatchedRepository extends JpaRepository<Watched, Long> {
     List<Watched> findByUserIdOrderByCreatedAtDesc(Long userId);
     boolean existsByUserIdAndMovieId(Long userId, String movieId);
     void deleteByUserIdAndMovieId(Long userId, String movieId);
+
+    @Query("select e.movieId as movieId, max(e.movieTitle) as title, max(e.posterPath) as posterPath, "
+            + "max(e.releaseDate) as releaseDate, count(e) as count from Watched e group by e.movieId")
+    List<MovieActivityCount> countByMovie();
 }
@@ -0,0 +1,35 @@
+package com.moviereview.backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the authenticated user, resolved by
+ * {@link CurrentUserArgumentResolver}:
+ * <ul>
+ * <li>{@code Long}: just the user id, usually without any query;</li>
+ * <li>{@code User} with {@link #reference()}: an id-only reference that is
+ * not loaded, for setting associations (e.g. the owner of a new like);</li>
+ * <li>{@code User}: the loaded user.</li>
+ * </ul>
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * Whether the request fails with 401 when there is no authenticated
+     * user; otherwise the parameter is null.
+     */
+    boolean required() default true;
+
+    /**
+     * For a {@code User} parameter, pass a reference instead of loading it.
+     * Only its id may be read without a query.
+     */
+    boolean reference() default false;
+}
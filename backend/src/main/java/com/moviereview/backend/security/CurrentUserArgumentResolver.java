@@ -0,0 +1,110 @@
+package com.moviereview.backend.security;
+
+import java.security.Principal;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.service.UserCache;
+
+/**
+ * Resolves {@link CurrentUser} parameters.
+ *
+ * The user id comes from the {@link JwtUser} principal, or for other
+ * principals (tokens without an id) from the email through
+ * {@link UserCache#idByEmail(String)}. The id and a loaded user are kept as
+ * request attributes, so several lookups in one request cost at most one
+ * query each.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ID_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".id";
+    private static final String USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+    // Memoizes "no such user" as well
+    private static final Long NONE = -1L;
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    public CurrentUserArgumentResolver(UserRepository userRepository, UserCache userCache) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (parameter.getParameterType() == Long.class || parameter.getParameterType() == User.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+        Object value = null;
+        Long id = currentUserId(webRequest);
+        if (id != null) {
+            if (parameter.getParameterType() == Long.class) {
+                value = id;
+            } else if (annotation.reference()) {
+                value = userRepository.getReferenceById(id);
+            } else {
+                value = currentUser(webRequest, id);
+            }
+        }
+        if (value == null && annotation.required()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
+        }
+        return value;
+    }
+
+    private Long currentUserId(NativeWebRequest webRequest) {
+        Long id = (Long) webRequest.getAttribute(ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (id == null) {
+            id = lookUpId(webRequest);
+            webRequest.setAttribute(ID_ATTRIBUTE, id != null ? id : NONE, RequestAttributes.SCOPE_REQUEST);
+        }
+        return NONE.equals(id) ? null : id;
+    }
+
+    private Long lookUpId(NativeWebRequest webRequest) {
+        Principal principal = webRequest.getUserPrincipal();
+        if (principal == null) {
+            principal = SecurityContextHolder.getContext().getAuthentication();
+        }
+        if (principal == null) {
+            return null;
+        }
+        if (principal instanceof Authentication authentication) {
+            if (authentication instanceof AnonymousAuthenticationToken) {
+                return null;
+            }
+            if (authentication.getPrincipal() instanceof JwtUser user) {
+                return user.getId();
+            }
+        }
+        return principal.getName() != null ? userCache.idByEmail(principal.getName()) : null;
+    }
+
+    private User currentUser(NativeWebRequest webRequest, Long id) {
+        User user = (User) webRequest.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user == null) {
+            user = userRepository.findById(id).orElse(null);
+            if (user != null) {
+                webRequest.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return user;
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.moviereview.backend.service.UserCache;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +23,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService, UserCache userCache) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
     }
 
     @Override
@@ -33,6 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         final String userEmail;
         final String jwtToken;
+        final Claims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -41,17 +47,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwtToken = authHeader.substring(7);
         try {
-            userEmail = jwtUtils.extractUsername(jwtToken);
+            // Parsed and verified once; the claims serve both the lookup and the check below
+            claims = jwtUtils.verify(jwtToken);
+            userEmail = claims.getSubject();
         } catch (Exception e) {
-            System.out.println("JwtAuthenticationFilter: Failed to extract username from token: " + e.getMessage());
+            System.out.println("JwtAuthenticationFilter: Failed to verify token: " + e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtUtils.isTokenValid(jwtToken, userDetails)) {
+                // Tokens carrying the user id need no lookup; older ones load the user by email
+                UserDetails userDetails = jwtUtils.toPrincipal(claims);
+                if (userDetails == null) {
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                } else if (userCache.isRemoved(((JwtUser) userDetails).getId())) {
+                    userDetails = null;
+                }
+                if (userDetails != null && userEmail.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
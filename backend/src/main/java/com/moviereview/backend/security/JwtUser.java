@@ -0,0 +1,61 @@
+package com.moviereview.backend.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.moviereview.backend.model.User;
+
+/**
+ * The authenticated user of a request, built from the claims of a verified
+ * JWT without loading the user: only the identity that never changes for a
+ * token (user id, email, authorities) is available. Endpoints that need the
+ * current profile load it by {@link #getId()}.
+ */
+public class JwtUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtUser(Long id, String email, List<GrantedAuthority> authorities) {
+        this.id = id;
+        this.email = email;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static JwtUser of(User user) {
+        // Since we don't have roles, there are no authorities
+        return new JwtUser(user.getId(), user.getEmail(), List.of());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtUser[id=" + id + ", email=" + email + "]";
+    }
+}
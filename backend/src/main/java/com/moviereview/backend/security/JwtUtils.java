@@ -1,36 +1,113 @@
 package com.moviereview.backend.security;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.moviereview.backend.model.User;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+/**
+ * Issues and verifies the application's JWTs.
+ *
+ * The signing key and the parser are built once. {@link #verify(String)}
+ * parses and checks a token a single time, and remembers the claims of up
+ * to {@code jwt.cache.size} recently verified tokens until they expire, so a
+ * client sending the same token on every request only pays for the
+ * signature check once. Tokens are cached by their SHA-256 digest, not
+ * verbatim. Hit/miss counters are published under the "jwt" cache name.
+ *
+ * Tokens carry the user id and authorities next to the email (subject), so
+ * {@link #toPrincipal(Claims)} can authenticate a request without loading
+ * the user.
+ */
 @Component
 public class JwtUtils {
 
     // In production, move this to application.properties
     // @Value("${jwt.secret}")
-    private String secret = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970"; 
+    private String secret = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
 
     private long jwtExpiration = 86400000; // 1 day
 
+    static final String USER_ID = "uid";
+    static final String AUTHORITIES = "auth";
+
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, Claims> verified;
+
+    public JwtUtils(@Value("${jwt.cache.size:0}") long cacheSize, MeterRegistry meterRegistry) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        if (cacheSize > 0) {
+            this.verified = Caffeine.newBuilder()
+                    .maximumSize(cacheSize)
+                    .expireAfter(new UntilExpiration())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt");
+        } else {
+            this.verified = null;
+        }
+    }
+
+    /**
+     * Returns the claims of a token with a valid signature that has not
+     * expired, or throws a {@link io.jsonwebtoken.JwtException} (or an
+     * {@link IllegalArgumentException} for an empty token). The returned
+     * claims may be shared between requests and must not be modified.
+     */
+    public Claims verify(String token) {
+        if (verified == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        ByteBuffer digest = digest(token);
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = parser.parseClaimsJws(token).getBody();
+        // Tokens without an expiration are verified every time
+        if (claims.getExpiration() != null) {
+            verified.put(digest, claims);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
@@ -44,39 +121,83 @@ public class JwtUtils {
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Issues a token that identifies {@code user} by id, email and
+     * authorities.
+     */
+    public String generateToken(User user) {
+        JwtUser principal = JwtUser.of(user);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID, principal.getId());
+        claims.put(AUTHORITIES, principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        return generateToken(claims, principal.getEmail());
+    }
+
+    /**
+     * The principal described by verified claims, or null for a token issued
+     * without a user id, whose user has to be loaded by email.
+     */
+    public JwtUser toPrincipal(Claims claims) {
+        Number id = claims.get(USER_ID, Number.class);
+        if (id == null || claims.getSubject() == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        List<?> names = claims.get(AUTHORITIES, List.class);
+        if (names != null) {
+            for (Object name : names) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+            }
+        }
+        return new JwtUser(id.longValue(), claims.getSubject(), authorities);
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(token, userDetails.getUsername());
     }
-    
+
     // Overloaded method for simple validation without UserDetails (if needed)
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username)) && !isTokenExpired(token);
+        try {
+            return username.equals(verify(token).getSubject());
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().getTime() <= System.currentTimeMillis();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+    private static class UntilExpiration implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
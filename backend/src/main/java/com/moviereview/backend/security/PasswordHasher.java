@@ -0,0 +1,135 @@
+package com.moviereview.backend.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt hashing and checks on a pool of its own, so a burst of logins
+ * or registrations (each hash costs on the order of 100 ms of CPU) cannot
+ * occupy the request threads every other endpoint needs.
+ *
+ * The pool has {@code auth.password.threads} threads (0 = one per core) and
+ * queues at most {@code auth.password.queue} tasks. When that is full a
+ * task is rejected right away with a {@link RejectedExecutionException},
+ * which callers answer with 503, instead of waiting behind work that would
+ * time out anyway. Hashes and checks are timed as auth.password.hash
+ * (operation tag); queue depth, busy threads and rejections are published
+ * as auth.password.queue, auth.password.active and auth.password.rejected.
+ *
+ * The returned futures complete on a second pool of the same size, so what
+ * callers chain onto them (saving the user, signing a token) does not take
+ * a hashing thread.
+ */
+@Component
+public class PasswordHasher {
+
+    // Checked against when there is no stored hash, so an unknown email takes as long as a wrong password
+    private static final String DUMMY_PASSWORD = "dummy-password";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService completions;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private volatile String dummyHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+            @Value("${auth.password.threads:0}") int threads,
+            @Value("${auth.password.queue:64}") int queueSize,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.completions = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.encodeTimer = meterRegistry.timer("auth.password.hash", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("auth.password.hash", "operation", "matches");
+        this.rejected = meterRegistry.counter("auth.password.rejected");
+        Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        completions.shutdownNow();
+    }
+
+    /**
+     * Hashes {@code rawPassword} on the hashing pool.
+     *
+     * @throws RejectedExecutionException if the pool's queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword} on the
+     * hashing pool. A null hash (e.g. an OAuth account, or no account at
+     * all) never matches, but is checked against a dummy hash for the same
+     * cost.
+     *
+     * @throws RejectedExecutionException if the pool's queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> {
+            if (encodedPassword == null || encodedPassword.isEmpty()) {
+                passwordEncoder.matches(rawPassword, dummyHash());
+                return false;
+            }
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        });
+    }
+
+    /**
+     * Whether a hash was made with a lower work factor than the one now
+     * configured and should be replaced at the next successful login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && !encodedPassword.isEmpty()
+                && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private String dummyHash() {
+        if (dummyHash == null) {
+            dummyHash = passwordEncoder.encode(DUMMY_PASSWORD);
+        }
+        return dummyHash;
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor)
+                    .thenApplyAsync(result -> result, completions);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.moviereview.backend.service;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * HttpClient request factory whose requests can be aborted from another
+ * thread. While a call runs inside {@link #track}, each request the calling
+ * thread creates is handed to the given listener as a {@link Cancellable}.
+ * Cancelling it closes the request's connection, so a read blocked on a
+ * slow server fails right away instead of holding the thread until the
+ * read timeout.
+ */
+public class AbortableRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private static final ThreadLocal<Consumer<Cancellable>> listener = new ThreadLocal<>();
+
+    public AbortableRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Runs {@code call}, passing every request it creates on this thread to
+     * {@code onRequest}. Requests made through other factories are not
+     * tracked.
+     */
+    public static <T> T track(Consumer<Cancellable> onRequest, Supplier<T> call) {
+        listener.set(onRequest);
+        try {
+            return call.get();
+        } finally {
+            listener.remove();
+        }
+    }
+
+    @Override
+    protected void postProcessHttpRequest(ClassicHttpRequest request) {
+        Consumer<Cancellable> onRequest = listener.get();
+        if (onRequest != null && request instanceof Cancellable cancellable) {
+            onRequest.accept(cancellable);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.moviereview.backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.MovieActivityCount;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory autocomplete over movie titles and people's names.
+ *
+ * Each title is indexed under its full normalized form and under every word
+ * it contains, so "knight" finds "The Dark Knight". Every trie node keeps
+ * the top suggestions of its subtree ordered by popularity, which makes a
+ * prefix lookup a walk of at most {@link #MAX_KEY_LENGTH} nodes. Typos are
+ * handled by a bounded Levenshtein walk over the same trie.
+ *
+ * The index starts from the movies in users' likes, watched lists,
+ * watchlists and reviews, and grows as titles and names come back from TMDB
+ * or users add movies. All writes run on a single loader thread, off the
+ * request path; when its queue is full an update is dropped, since titles
+ * keep coming back. The loader copies-on-write the nodes it touches, so
+ * lookups never block.
+ *
+ * At most {@code autocomplete.max-entries} titles and names are kept. Past
+ * that the least popular tenth is dropped and the tries are rebuilt from
+ * the remaining entries, which also clears the prefix paths of entries
+ * whose title changed; a rebuild is also done once such stale paths amount
+ * to a tenth of the cap.
+ */
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    public static final String MOVIE = "movie";
+    public static final String PERSON = "person";
+
+    static final int MAX_KEY_LENGTH = 32;
+    private static final int TOP_K = 10;
+    private static final int UPDATE_QUEUE = 1024;
+    // Each user that has a movie in one of their lists counts like this much TMDB popularity
+    private static final double ACTIVITY_WEIGHT = 10;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final ReviewRepository reviewRepository;
+    private final int maxEntries;
+    private final ThreadPoolExecutor loader;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Trie movies = new Trie();
+    private volatile Trie people = new Trie();
+    // Entries indexed under a title they no longer have; only touched by the loader
+    private int stale;
+
+    public AutocompleteIndex(LikeRepository likeRepository, WatchedRepository watchedRepository,
+            WatchlistRepository watchlistRepository, ReviewRepository reviewRepository,
+            @Value("${autocomplete.max-entries:100000}") int maxEntries) {
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.watchlistRepository = watchlistRepository;
+        this.reviewRepository = reviewRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.loader = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(UPDATE_QUEUE), runnable -> {
+                    Thread thread = new Thread(runnable, "autocomplete-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PostConstruct
+    public void start() {
+        loader.execute(this::loadUserActivity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    private void loadUserActivity() {
+        long started = System.currentTimeMillis();
+        try {
+            Map<String, MovieActivityCount> titles = new HashMap<>();
+            Map<String, Long> counts = new HashMap<>();
+            for (List<MovieActivityCount> source : List.of(likeRepository.countByMovie(),
+                    watchedRepository.countByMovie(), watchlistRepository.countByMovie(),
+                    reviewRepository.countByMovie())) {
+                for (MovieActivityCount movie : source) {
+                    if (movie.getTitle() != null) {
+                        titles.putIfAbsent(movie.getMovieId(), movie);
+                        counts.merge(movie.getMovieId(), movie.getCount(), Long::sum);
+                    }
+                }
+            }
+            titles.forEach((id, movie) -> updateActivity(id, movie.getTitle(), movie.getReleaseDate(),
+                    movie.getPosterPath(), counts.get(id)));
+            logger.info("Autocomplete index loaded {} movies from user activity in {} ms", titles.size(),
+                    System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.warn("Could not load user activity into the autocomplete index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records that {@code users} more users added the movie to one of their
+     * lists.
+     */
+    public void addActivity(String movieId, String title, String releaseDate, String posterPath, long users) {
+        loader.execute(() -> updateActivity(movieId, title, releaseDate, posterPath, users));
+    }
+
+    public void addMovies(Collection<TmdbMovieSummary> summaries) {
+        List<TmdbMovieSummary> movies = List.copyOf(summaries);
+        loader.execute(() -> {
+            for (TmdbMovieSummary movie : movies) {
+                update(MOVIE, movie.id(), movie.title(), movie.releaseDate(), movie.posterPath(),
+                        movie.popularity(), 0);
+            }
+        });
+    }
+
+    public void addPeople(Collection<TmdbPersonSummary> summaries) {
+        List<TmdbPersonSummary> people = List.copyOf(summaries);
+        loader.execute(() -> {
+            for (TmdbPersonSummary person : people) {
+                update(PERSON, person.id(), person.name(), null, person.profilePath(), person.popularity(), 0);
+            }
+        });
+    }
+
+    /**
+     * Waits until the updates queued so far are applied; for tests.
+     */
+    void awaitUpdates() throws InterruptedException, ExecutionException {
+        loader.submit(() -> {
+        }).get();
+    }
+
+    private void updateActivity(String movieId, String title, String releaseDate, String posterPath, long users) {
+        long id;
+        try {
+            id = Long.parseLong(movieId);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        update(MOVIE, id, title, releaseDate, posterPath, null, users);
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for what the user has typed so
+     * far. {@code type} is {@link #MOVIE}, {@link #PERSON} or null for both.
+     */
+    public List<Suggestion> suggest(String query, String type, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String key = normalized.substring(0, Math.min(normalized.length(), MAX_KEY_LENGTH));
+        List<Trie> tries = type == null ? List.of(movies, people)
+                : List.of(PERSON.equals(type) ? people : movies);
+
+        Map<String, Suggestion> results = new LinkedHashMap<>();
+        collect(tries, trie -> trie.prefix(key), results, limit);
+        if (results.size() < limit && key.length() >= 3) {
+            int maxEdits = key.length() >= 6 ? 2 : 1;
+            collect(tries, trie -> trie.fuzzy(key, maxEdits), results, limit);
+        }
+        return List.copyOf(results.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void collect(List<Trie> tries, Function<Trie, List<String>> lookup,
+            Map<String, Suggestion> results, int limit) {
+        List<Suggestion> found = new ArrayList<>();
+        for (Trie trie : tries) {
+            for (String id : lookup.apply(trie)) {
+                Entry entry = entries.get(id);
+                if (entry != null && !results.containsKey(id)) {
+                    found.add(entry.suggestion());
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Suggestion::popularity).reversed());
+        for (Suggestion suggestion : found) {
+            if (results.size() >= limit) {
+                break;
+            }
+            results.putIfAbsent(suggestion.type() + ":" + suggestion.id(), suggestion);
+        }
+    }
+
+    private void update(String type, long id, String title, String releaseDate, String imagePath,
+            Double tmdbPopularity, long users) {
+        if (title == null || title.isBlank()) {
+            return;
+        }
+        String key = type + ":" + id;
+        Entry previous = entries.get(key);
+        double popularity = tmdbPopularity != null ? tmdbPopularity
+                : previous != null ? previous.tmdbPopularity() : 0;
+        long activity = (previous != null ? previous.activity() : 0) + users;
+        String year = releaseDate != null && releaseDate.length() >= 4 ? releaseDate.substring(0, 4)
+                : previous != null ? previous.suggestion().year() : null;
+        String image = imagePath != null ? imagePath : previous != null ? previous.suggestion().imagePath() : null;
+
+        Suggestion suggestion = new Suggestion(type, id, title, year, image,
+                popularity + activity * ACTIVITY_WEIGHT);
+        entries.put(key, new Entry(suggestion, popularity, activity));
+        if (previous != null && !normalize(previous.suggestion().title()).equals(normalize(title))) {
+            stale++;
+        }
+        index(PERSON.equals(type) ? people : movies, key, suggestion);
+
+        if (entries.size() > maxEntries || stale >= Math.max(1, maxEntries / 10)) {
+            rebuild();
+        }
+    }
+
+    // Indexes the entry from the start of every word of its title
+    private static void index(Trie trie, String key, Suggestion suggestion) {
+        String normalized = normalize(suggestion.title());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        while (true) {
+            trie.insert(normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH)), key,
+                    suggestion.popularity());
+            int space = normalized.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+    }
+
+    /**
+     * Drops the least popular entries while over the cap and builds fresh
+     * tries from the rest; lookups keep using the old tries until they are
+     * swapped in.
+     */
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        int dropped = 0;
+        if (entries.size() > maxEntries) {
+            List<Map.Entry<String, Entry>> ranked = new ArrayList<>(entries.entrySet());
+            ranked.sort(Comparator.comparingDouble(entry -> entry.getValue().suggestion().popularity()));
+            int keep = maxEntries - maxEntries / 10;
+            for (Map.Entry<String, Entry> entry : ranked.subList(0, ranked.size() - keep)) {
+                entries.remove(entry.getKey());
+                dropped++;
+            }
+        }
+        Trie newMovies = new Trie();
+        Trie newPeople = new Trie();
+        entries.forEach((key, entry) -> index(PERSON.equals(entry.suggestion().type()) ? newPeople : newMovies, key,
+                entry.suggestion()));
+        movies = newMovies;
+        people = newPeople;
+        stale = 0;
+        logger.info("Autocomplete index rebuilt with {} entries ({} dropped) in {} ms", entries.size(), dropped,
+                System.currentTimeMillis() - started);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    public record Suggestion(String type, long id, String title, String year, String imagePath,
+            double popularity) {
+    }
+
+    private record Entry(Suggestion suggestion, double tmdbPopularity, long activity) {
+    }
+
+    /**
+     * Character trie whose nodes carry the ids of the most popular entries
+     * below them. Inserts all run on the loader thread; lookups run
+     * concurrently and only ever see fully built edge and top arrays.
+     */
+    static final class Trie {
+
+        private final Node root = new Node();
+
+        void insert(String key, String id, double popularity) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i), true);
+                node.offer(id, popularity);
+            }
+        }
+
+        List<String> prefix(String key) {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i), false);
+            }
+            return node == null ? List.of() : node.ids();
+        }
+
+        /**
+         * Ids below every trie path within {@code maxEdits} edits of
+         * {@code key}.
+         */
+        List<String> fuzzy(String key, int maxEdits) {
+            int[] row = new int[key.length() + 1];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = j;
+            }
+            List<String> ids = new ArrayList<>();
+            fuzzy(root, key, row, maxEdits, ids);
+            return ids;
+        }
+
+        private void fuzzy(Node node, String key, int[] previous, int maxEdits, List<String> ids) {
+            Edges edges = node.edges;
+            for (int e = 0; e < edges.labels().length; e++) {
+                char c = edges.labels()[e];
+                int[] row = new int[previous.length];
+                row[0] = previous[0] + 1;
+                int best = row[0];
+                for (int j = 1; j < row.length; j++) {
+                    int substitute = previous[j - 1] + (key.charAt(j - 1) == c ? 0 : 1);
+                    row[j] = Math.min(substitute, Math.min(row[j - 1], previous[j]) + 1);
+                    best = Math.min(best, row[j]);
+                }
+                Node child = edges.nodes()[e];
+                if (row[row.length - 1] <= maxEdits) {
+                    ids.addAll(child.ids());
+                } else if (best <= maxEdits) {
+                    fuzzy(child, key, row, maxEdits, ids);
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private volatile Edges edges = Edges.EMPTY;
+        private volatile Ranked[] top = new Ranked[0];
+
+        Node child(char c, boolean create) {
+            Edges current = edges;
+            int index = Arrays.binarySearch(current.labels(), c);
+            if (index >= 0) {
+                return current.nodes()[index];
+            }
+            if (!create) {
+                return null;
+            }
+            Node child = new Node();
+            edges = current.with(-index - 1, c, child);
+            return child;
+        }
+
+        void offer(String id, double popularity) {
+            Ranked[] current = top;
+            List<Ranked> ranked = new ArrayList<>(current.length + 1);
+            for (Ranked entry : current) {
+                if (!entry.id().equals(id)) {
+                    ranked.add(entry);
+                }
+            }
+            ranked.add(new Ranked(id, popularity));
+            ranked.sort(Comparator.comparingDouble(Ranked::popularity).reversed());
+            top = ranked.subList(0, Math.min(TOP_K, ranked.size())).toArray(new Ranked[0]);
+        }
+
+        List<String> ids() {
+            Ranked[] current = top;
+            List<String> ids = new ArrayList<>(current.length);
+            for (Ranked entry : current) {
+                ids.add(entry.id());
+            }
+            return ids;
+        }
+    }
+
+    private record Ranked(String id, double popularity) {
+    }
+
+    private record Edges(char[] labels, Node[] nodes) {
+
+        static final Edges EMPTY = new Edges(new char[0], new Node[0]);
+
+        Edges with(int index, char label, Node node) {
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newLabels[index] = label;
+            newNodes[index] = node;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(nodes, index, newNodes, index + 1, nodes.length - index);
+            return new Edges(newLabels, newNodes);
+        }
+    }
+}
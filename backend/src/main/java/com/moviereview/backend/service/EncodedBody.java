@@ -0,0 +1,28 @@
+package com.moviereview.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A serialized JSON response body together with its gzip encoding, so hot
+ * responses can be written as-is without serializing or compressing per
+ * request.
+ */
+public record EncodedBody(byte[] json, byte[] gzip) {
+
+    public static EncodedBody of(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedBody(json, out.toByteArray());
+    }
+
+    public int size() {
+        return json.length + gzip.length;
+    }
+}
@@ -0,0 +1,99 @@
+package com.moviereview.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+
+/**
+ * A client-selected subset of top-level response fields, from a
+ * {@code fields=} query parameter. Fields are listed by their JSON names or
+ * by a named projection such as {@code card} (what poster grids and hover
+ * cards show), or both.
+ *
+ * The selection applies to each object of a list and to each result of a
+ * page, so one parameter works for details, trending and search responses.
+ * Unknown names simply select nothing.
+ */
+public final class Fieldset {
+
+    private static final Map<String, List<String>> PROJECTIONS = Map.of(
+            "card", List.of("id", "title", "poster_path", "release_date", "vote_average"));
+    private static final Pattern FIELD_NAME = Pattern.compile("[a-z0-9_]{1,40}");
+    private static final int MAX_FIELDS = 32;
+
+    private final Set<String> names;
+    private final String key;
+
+    private Fieldset(Set<String> names) {
+        this.names = names;
+        this.key = String.join(",", names);
+    }
+
+    /**
+     * Parses a {@code fields=} value. Returns null, meaning the whole
+     * response, when it is absent or names nothing usable.
+     */
+    public static Fieldset parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        // Sorted, so equivalent selections share one cached body
+        Set<String> names = new TreeSet<>();
+        for (String token : fields.split(",")) {
+            String name = token.trim().toLowerCase();
+            if (PROJECTIONS.containsKey(name)) {
+                names.addAll(PROJECTIONS.get(name));
+            } else if (FIELD_NAME.matcher(name).matches() && names.size() < MAX_FIELDS) {
+                names.add(name);
+            }
+        }
+        return names.isEmpty() ? null : new Fieldset(names);
+    }
+
+    /**
+     * Canonical form of the selection, for cache keys.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Entity tag of the {@code fields} representation of a resource tagged
+     * {@code etag}. Each selection is its own representation, so it gets a
+     * tag of its own.
+     */
+    public static String etag(String etag, Fieldset fields) {
+        if (etag == null || fields == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-f" + Integer.toHexString(fields.key.hashCode()) + "\"";
+    }
+
+    /**
+     * Returns {@code value} as a JSON tree reduced to the selected fields.
+     */
+    public JsonNode apply(ObjectMapper objectMapper, Object value) {
+        JsonNode tree = objectMapper.valueToTree(value);
+        if (value instanceof TmdbPage<?>) {
+            retain(tree.get("results"));
+        } else {
+            retain(tree);
+        }
+        return tree;
+    }
+
+    private void retain(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            object.retain(names);
+        } else if (node != null && node.isArray()) {
+            node.forEach(this::retain);
+        }
+    }
+}
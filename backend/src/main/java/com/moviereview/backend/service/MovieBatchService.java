@@ -0,0 +1,153 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fetches the details of many movies at once.
+ *
+ * Ids are deduplicated and looked up in parallel, at most
+ * {@code tmdb.batch.parallelism} at a time per batch, so a batch takes about
+ * as long as its slowest movie. Movies that cannot be loaded are reported
+ * per id instead of failing the whole batch.
+ */
+@Service
+public class MovieBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieBatchService.class);
+
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID_ID = "invalid_id";
+    public static final String UNAVAILABLE = "unavailable";
+    public static final String TIMEOUT = "timeout";
+
+    private final TmdbService tmdbService;
+    private final int parallelism;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final DistributionSummary batchSizes;
+
+    public MovieBatchService(TmdbService tmdbService,
+            @Value("${tmdb.batch.parallelism:8}") int parallelism,
+            @Value("${tmdb.batch.threads:32}") int threads,
+            @Value("${tmdb.batch.timeout:10s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.tmdbService = tmdbService;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "movie-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizes = DistributionSummary.builder("movies.batch.size")
+                .description("Distinct movie ids per batch request")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public BatchResult getMovies(Collection<String> ids) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                unique.add(id.trim());
+            }
+        }
+        batchSizes.record(unique.size());
+
+        Map<String, TmdbMovie> loaded = new ConcurrentHashMap<>();
+        Map<String, String> failed = new ConcurrentHashMap<>();
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        for (String id : unique) {
+            if (id.chars().allMatch(Character::isDigit)) {
+                pending.add(id);
+            } else {
+                failed.put(id, INVALID_ID);
+            }
+        }
+
+        // A few workers per batch drain the shared queue, which bounds this batch's concurrency
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, pending.size()); i++) {
+            workers.add(CompletableFuture.runAsync(() -> drain(pending, loaded, failed), executor));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pending.clear();
+            logger.warn("Movie batch of {} timed out after {} ms", unique.size(), timeout.toMillis());
+        } catch (InterruptedException e) {
+            pending.clear();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Movie batch failed: {}", e.getMessage());
+        }
+
+        Map<String, TmdbMovie> results = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (String id : unique) {
+            TmdbMovie movie = loaded.get(id);
+            if (movie != null) {
+                results.put(id, movie);
+            } else {
+                errors.put(id, failed.getOrDefault(id, TIMEOUT));
+            }
+        }
+        return new BatchResult(results, errors);
+    }
+
+    private void drain(Queue<String> pending, Map<String, TmdbMovie> loaded, Map<String, String> failed) {
+        for (String id = pending.poll(); id != null; id = pending.poll()) {
+            try {
+                tmdbService.recordAccess("movie:" + id);
+                // Cards in a list are not opened, so their people are not worth prefetching
+                TmdbMovie movie = tmdbService.getMovie(id, false);
+                if (movie != null) {
+                    loaded.put(id, movie);
+                } else {
+                    failed.put(id, tmdbService.isMovieMissing(id) ? NOT_FOUND : UNAVAILABLE);
+                }
+            } catch (Exception e) {
+                failed.put(id, UNAVAILABLE);
+            }
+        }
+    }
+
+    /**
+     * Movies keyed by id in request order, and the reason for every id that
+     * could not be loaded.
+     */
+    public record BatchResult(Map<String, TmdbMovie> results, Map<String, String> errors) {
+    }
+}
@@ -0,0 +1,409 @@
+package com.moviereview.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FeatureField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local, searchable catalog of TMDB movies kept in an on-disk Lucene index.
+ *
+ * The set of movies and their popularity come from TMDB's daily ID export,
+ * which is downloaded in the background. The export only carries the
+ * original title, so a movie becomes searchable once it has been enriched
+ * with a summary (title, release date, poster, ...) from a TMDB response
+ * that went through {@link TmdbService}. Titles, original titles and release
+ * years are matched with BM25, boosted by popularity.
+ *
+ * All writes run on a single background thread, so enrichment never races
+ * with an export being ingested.
+ */
+@Component
+public class MovieCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieCatalog.class);
+
+    static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGES = 500;
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String ORIGINAL_TITLE = "original_title";
+    private static final String YEAR = "year";
+    private static final String ENRICHED = "enriched";
+    private static final String FEATURES = "features";
+    private static final String POPULARITY = "popularity";
+    private static final String SUMMARY = "summary";
+    private static final String EXPORT_DATE = "exportDate";
+
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("MM_dd_yyyy");
+    private static final Pattern YEAR_TOKEN = Pattern.compile("(18|19|20)\\d{2}");
+    private static final long COMMIT_INTERVAL_MILLIS = 60_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final String exportUrl;
+    private final Duration exportCheckInterval;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ScheduledExecutorService executor;
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private long lastCommit;
+
+    public MovieCatalog(@Value("${tmdb.catalog.enabled:false}") boolean enabled,
+            @Value("${tmdb.catalog.dir:data/catalog}") Path directory,
+            @Value("${tmdb.catalog.export-url:}") String exportUrl,
+            @Value("${tmdb.catalog.export-check-interval:6h}") Duration exportCheckInterval,
+            @Qualifier("tmdbRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.exportUrl = exportUrl;
+        this.exportCheckInterval = exportCheckInterval;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "movie-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(FSDirectory.open(directory), config);
+        searcherManager = new SearcherManager(writer, null);
+        lastCommit = System.currentTimeMillis();
+        if (!exportUrl.isBlank()) {
+            executor.scheduleWithFixedDelay(this::refreshExport, 0, exportCheckInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        if (writer != null) {
+            searcherManager.close();
+            writer.close();
+            writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Searches the enriched movies. Returns null when the catalog is disabled
+     * or cannot be searched, so callers know to ask TMDB instead.
+     */
+    public TmdbPage<TmdbMovieSummary> search(String query, int page) {
+        if (writer == null || query == null || query.isBlank()) {
+            return null;
+        }
+        int pageNumber = Math.min(Math.max(page, 1), MAX_PAGES);
+        try {
+            Query luceneQuery = buildQuery(query);
+            if (luceneQuery == null) {
+                return null;
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(luceneQuery, pageNumber * PAGE_SIZE);
+                List<TmdbMovieSummary> results = new ArrayList<>(PAGE_SIZE);
+                ScoreDoc[] hits = top.scoreDocs;
+                for (int i = (pageNumber - 1) * PAGE_SIZE; i < hits.length; i++) {
+                    BytesRef summary = searcher.storedFields().document(hits[i].doc).getBinaryValue(SUMMARY);
+                    results.add(objectMapper.readValue(summary.bytes, summary.offset, summary.length,
+                            TmdbMovieSummary.class));
+                }
+                int total = (int) Math.min(top.totalHits.value, (long) MAX_PAGES * PAGE_SIZE);
+                return new TmdbPage<>(pageNumber, results, (total + PAGE_SIZE - 1) / PAGE_SIZE, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.warn("Movie catalog search failed for '{}': {}", query, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds or refreshes movie summaries seen in TMDB responses. Indexing
+     * happens asynchronously.
+     */
+    public void enrich(Collection<TmdbMovieSummary> movies) {
+        if (!enabled || movies.isEmpty()) {
+            return;
+        }
+        List<TmdbMovieSummary> batch = List.copyOf(movies);
+        executor.execute(() -> {
+            try {
+                index(batch);
+            } catch (Exception e) {
+                logger.warn("Could not add {} movies to the catalog: {}", batch.size(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits for the writes queued so far and makes them searchable.
+     */
+    void flush() throws Exception {
+        executor.submit(() -> {
+            searcherManager.maybeRefreshBlocking();
+            return null;
+        }).get();
+    }
+
+    public int size() {
+        return writer == null ? 0 : writer.getDocStats().numDocs;
+    }
+
+    private void index(List<TmdbMovieSummary> movies) throws IOException {
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (TmdbMovieSummary movie : movies) {
+                if (movie.title() == null) {
+                    // TV entries from "known for" lists
+                    continue;
+                }
+                Double popularity = movie.popularity();
+                if (popularity == null) {
+                    Document existing = find(searcher, movie.id());
+                    popularity = existing != null ? existing.getField(POPULARITY).numericValue().doubleValue() : 0;
+                }
+                writer.updateDocument(new Term(ID, Long.toString(movie.id())), document(movie, popularity));
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        searcherManager.maybeRefresh();
+        if (System.currentTimeMillis() - lastCommit > COMMIT_INTERVAL_MILLIS) {
+            commit();
+        }
+    }
+
+    private void refreshExport() {
+        String date = LocalDate.now(ZoneOffset.UTC).minusDays(1).format(EXPORT_DATE_FORMAT);
+        if (date.equals(lastExportDate())) {
+            return;
+        }
+        try {
+            restTemplate.execute(exportUrl, HttpMethod.GET, null, response -> {
+                ingestExport(new GZIPInputStream(response.getBody()), date);
+                return null;
+            }, Map.of("date", date));
+        } catch (Exception e) {
+            logger.warn("Could not ingest TMDB movie export {}: {}", date, e.getMessage());
+        }
+    }
+
+    private String lastExportDate() {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (EXPORT_DATE.equals(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ingests a decompressed TMDB ID export (one JSON object per line).
+     * Movies already enriched keep their summary and only get the new
+     * popularity.
+     */
+    void ingestExport(InputStream export, String date) throws IOException {
+        long started = System.currentTimeMillis();
+        int count = 0;
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(export, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                ExportLine movie = objectMapper.readValue(line, ExportLine.class);
+                if (movie.adult() || movie.video()) {
+                    continue;
+                }
+                Document existing = find(searcher, movie.id());
+                BytesRef summary = existing != null ? existing.getBinaryValue(SUMMARY) : null;
+                Document document = summary != null
+                        ? document(objectMapper.readValue(summary.bytes, summary.offset, summary.length,
+                                TmdbMovieSummary.class), movie.popularity())
+                        : exportDocument(movie);
+                writer.updateDocument(new Term(ID, Long.toString(movie.id())), document);
+                count++;
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        writer.setLiveCommitData(Map.of(EXPORT_DATE, date).entrySet());
+        commit();
+        searcherManager.maybeRefresh();
+        logger.info("Ingested {} movies from TMDB export {} in {} ms", count, date,
+                System.currentTimeMillis() - started);
+    }
+
+    private void commit() throws IOException {
+        writer.commit();
+        lastCommit = System.currentTimeMillis();
+    }
+
+    private static Document find(IndexSearcher searcher, long id) throws IOException {
+        TopDocs top = searcher.search(new TermQuery(new Term(ID, Long.toString(id))), 1);
+        return top.scoreDocs.length == 0 ? null : searcher.storedFields().document(top.scoreDocs[0].doc);
+    }
+
+    private Document document(TmdbMovieSummary movie, double popularity) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(movie.id()), Field.Store.YES));
+        document.add(new TextField(TITLE, movie.title(), Field.Store.NO));
+        if (movie.originalTitle() != null && !movie.originalTitle().equals(movie.title())) {
+            document.add(new TextField(ORIGINAL_TITLE, movie.originalTitle(), Field.Store.NO));
+        }
+        if (movie.releaseDate() != null && movie.releaseDate().length() >= 4) {
+            document.add(new StringField(YEAR, movie.releaseDate().substring(0, 4), Field.Store.NO));
+        }
+        document.add(new StringField(ENRICHED, "true", Field.Store.NO));
+        addPopularity(document, popularity);
+        document.add(new StoredField(SUMMARY, objectMapper.writeValueAsBytes(movie)));
+        return document;
+    }
+
+    private static Document exportDocument(ExportLine movie) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(movie.id()), Field.Store.YES));
+        if (movie.originalTitle() != null) {
+            document.add(new TextField(ORIGINAL_TITLE, movie.originalTitle(), Field.Store.NO));
+        }
+        addPopularity(document, movie.popularity());
+        return document;
+    }
+
+    private static void addPopularity(Document document, double popularity) {
+        // Feature values have to be positive
+        document.add(new FeatureField(FEATURES, POPULARITY, (float) Math.max(popularity, 0.01)));
+        document.add(new StoredField(POPULARITY, popularity));
+    }
+
+    /**
+     * Every query term has to match the title, original title or release
+     * year. The last term also matches as a prefix while the user is still
+     * typing it. Popularity is added on top of the BM25 score.
+     */
+    private Query buildQuery(String query) throws IOException {
+        List<String> terms = analyze(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        boolean typing = !Character.isWhitespace(query.charAt(query.length() - 1));
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            BooleanQuery.Builder match = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(TITLE, term)), 3f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(ORIGINAL_TITLE, term)), 1.5f),
+                            BooleanClause.Occur.SHOULD);
+            if (YEAR_TOKEN.matcher(term).matches()) {
+                match.add(new BoostQuery(new TermQuery(new Term(YEAR, term)), 2f), BooleanClause.Occur.SHOULD);
+            }
+            if (typing && i == terms.size() - 1) {
+                match.add(new PrefixQuery(new Term(TITLE, term)), BooleanClause.Occur.SHOULD);
+            }
+            builder.add(match.build(), BooleanClause.Occur.MUST);
+        }
+        builder.add(FeatureField.newSaturationQuery(FEATURES, POPULARITY, 2f, 20f), BooleanClause.Occur.SHOULD);
+        builder.add(new TermQuery(new Term(ENRICHED, "true")), BooleanClause.Occur.FILTER);
+        return builder.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ExportLine(long id, @JsonProperty("original_title") String originalTitle, double popularity,
+            boolean adult, boolean video) {
+    }
+}
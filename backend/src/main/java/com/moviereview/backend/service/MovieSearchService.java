@@ -0,0 +1,53 @@
+package com.moviereview.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Movie search that answers from the local {@link MovieCatalog} when it has
+ * enough matches and only asks TMDB on a miss. When TMDB cannot be reached
+ * whatever the catalog found is returned, so search keeps working during
+ * TMDB outages.
+ */
+@Service
+public class MovieSearchService {
+
+    private final MovieCatalog movieCatalog;
+    private final TmdbService tmdbService;
+    private final int minHits;
+    private final Counter localSearches;
+    private final Counter tmdbSearches;
+    private final Counter fallbackSearches;
+
+    public MovieSearchService(MovieCatalog movieCatalog, TmdbService tmdbService,
+            @Value("${tmdb.catalog.min-hits:5}") int minHits, MeterRegistry meterRegistry) {
+        this.movieCatalog = movieCatalog;
+        this.tmdbService = tmdbService;
+        this.minHits = minHits;
+        this.localSearches = Counter.builder("movies.search").tag("source", "catalog").register(meterRegistry);
+        this.tmdbSearches = Counter.builder("movies.search").tag("source", "tmdb").register(meterRegistry);
+        this.fallbackSearches = Counter.builder("movies.search").tag("source", "catalog-fallback")
+                .register(meterRegistry);
+    }
+
+    public TmdbPage<TmdbMovieSummary> searchMovies(String query, int page) {
+        TmdbPage<TmdbMovieSummary> local = movieCatalog.search(query, page);
+        if (local != null && local.totalResults() >= minHits) {
+            localSearches.increment();
+            return local;
+        }
+        TmdbPage<TmdbMovieSummary> remote = tmdbService.searchMovies(query, page);
+        if (remote == null && local != null) {
+            fallbackSearches.increment();
+            return local;
+        }
+        tmdbSearches.increment();
+        return remote;
+    }
+}
@@ -0,0 +1,289 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.moviereview.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * One search across movies, people and users for the search page.
+ *
+ * The three sources are queried in parallel, so a search takes about as
+ * long as its slowest source, and each gets at most
+ * {@code search.branch-timeout}: a source that does not answer in time (or
+ * fails) comes back as an empty section marked "timeout" (or "error")
+ * instead of holding up the others. The best matches of all sections are
+ * merged into one ranked list; each section also carries its own results
+ * and a cursor for its next page, which is fetched by asking for that
+ * section alone.
+ *
+ * The TMDB sections run on {@code search.threads} threads with at most
+ * {@code search.queue} searches waiting; beyond that a section is answered
+ * with "error" right away. The users section has a pool of its own
+ * ({@code search.user-threads}), so a slow TMDB cannot hold it up.
+ */
+@Service
+public class MultiSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiSearchService.class);
+
+    public static final String MOVIES = "movies";
+    public static final String PEOPLE = "people";
+    public static final String USERS = "users";
+    public static final List<String> SECTIONS = List.of(MOVIES, PEOPLE, USERS);
+
+    static final int USER_PAGE_SIZE = 20;
+    // TMDB popularity is open ended; this much counts as fully popular for ranking
+    private static final double POPULAR = 500;
+
+    private final MovieSearchService movieSearchService;
+    private final TmdbService tmdbService;
+    private final UserRepository userRepository;
+    private final Duration branchTimeout;
+    private final int topSize;
+    private final ExecutorService tmdbExecutor;
+    private final ExecutorService userExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public MultiSearchService(MovieSearchService movieSearchService, TmdbService tmdbService,
+            UserRepository userRepository,
+            @Value("${search.branch-timeout:2s}") Duration branchTimeout,
+            @Value("${search.top:10}") int topSize,
+            @Value("${search.threads:16}") int threads,
+            @Value("${search.queue:32}") int queueSize,
+            @Value("${search.user-threads:4}") int userThreads,
+            MeterRegistry meterRegistry) {
+        this.movieSearchService = movieSearchService;
+        this.tmdbService = tmdbService;
+        this.userRepository = userRepository;
+        this.branchTimeout = branchTimeout;
+        this.topSize = topSize;
+        this.meterRegistry = meterRegistry;
+        this.tmdbExecutor = pool("multi-search", threads, queueSize);
+        this.userExecutor = pool("multi-search-users", userThreads, queueSize);
+    }
+
+    private static ExecutorService pool(String name, int threads, int queueSize) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        tmdbExecutor.shutdownNow();
+        userExecutor.shutdownNow();
+    }
+
+    /**
+     * Searches all sections for their first page, or only {@code section}
+     * (one of {@link #SECTIONS}) starting at {@code cursor}.
+     */
+    public SearchResult search(String query, String section, String cursor) {
+        int page = section != null ? parseCursor(cursor) : 1;
+        long deadline = System.nanoTime() + branchTimeout.toNanos();
+
+        CompletableFuture<Section<TmdbMovieSummary>> movies = section == null || section.equals(MOVIES)
+                ? branch(MOVIES, tmdbExecutor, () -> searchMovies(query, page)) : null;
+        CompletableFuture<Section<TmdbPersonSummary>> people = section == null || section.equals(PEOPLE)
+                ? branch(PEOPLE, tmdbExecutor, () -> searchPeople(query, page)) : null;
+        CompletableFuture<Section<UserHit>> users = section == null || section.equals(USERS)
+                ? branch(USERS, userExecutor, () -> searchUsers(query, page)) : null;
+
+        SearchResult result = new SearchResult(query, null, await(MOVIES, movies, deadline),
+                await(PEOPLE, people, deadline), await(USERS, users, deadline));
+        return section == null ? result.withTop(rank(query, result, topSize)) : result;
+    }
+
+    private Section<TmdbMovieSummary> searchMovies(String query, int page) {
+        return tmdbSection(movieSearchService.searchMovies(query, page), page);
+    }
+
+    private Section<TmdbPersonSummary> searchPeople(String query, int page) {
+        return tmdbSection(tmdbService.searchPeople(query, page), page);
+    }
+
+    private static <T> Section<T> tmdbSection(TmdbPage<T> result, int page) {
+        if (result == null) {
+            return Section.failed("error");
+        }
+        List<T> results = result.results() != null ? result.results() : List.of();
+        return new Section<>("ok", results, page < result.totalPages() ? String.valueOf(page + 1) : null);
+    }
+
+    private Section<UserHit> searchUsers(String query, int page) {
+        Slice<User> users = userRepository.findByNameContainingIgnoreCaseOrderByName(query,
+                PageRequest.of(page - 1, USER_PAGE_SIZE));
+        List<UserHit> results = users.getContent().stream().map(UserHit::of).toList();
+        return new Section<>("ok", results, users.hasNext() ? String.valueOf(page + 1) : null);
+    }
+
+    private <T> CompletableFuture<Section<T>> branch(String name, ExecutorService executor,
+            Supplier<Section<T>> search) {
+        Timer timer = meterRegistry.timer("search.branch", "section", name);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(search), executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("search.branch.failures", "section", name, "reason", "rejected").increment();
+            logger.warn("Search section {} rejected, its pool is saturated", name);
+            return CompletableFuture.completedFuture(Section.failed("error"));
+        }
+    }
+
+    private <T> Section<T> await(String name, CompletableFuture<Section<T>> future, long deadline) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("search.branch.failures", "section", name, "reason", "timeout").increment();
+            logger.warn("Search section {} timed out after {} ms", name, branchTimeout.toMillis());
+            return Section.failed("timeout");
+        } catch (ExecutionException e) {
+            meterRegistry.counter("search.branch.failures", "section", name, "reason", "error").increment();
+            logger.warn("Search section {} failed: {}", name, e.getCause().getMessage());
+            return Section.failed("error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Section.failed("error");
+        }
+    }
+
+    /**
+     * Merges the sections into one list, best first. Each hit scores by how
+     * well its name matches the query (exact, prefix, word prefix,
+     * substring), boosted by TMDB popularity; within a section a source's
+     * own order breaks ties.
+     */
+    static List<Hit> rank(String query, SearchResult result, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        if (result.movies() != null) {
+            List<TmdbMovieSummary> movies = result.movies().results();
+            for (int i = 0; i < movies.size(); i++) {
+                TmdbMovieSummary movie = movies.get(i);
+                hits.add(new Hit("movie", movie.id(), movie.title(), movie.posterPath(),
+                        score(query, movie.title(), movie.popularity(), i)));
+            }
+        }
+        if (result.people() != null) {
+            List<TmdbPersonSummary> people = result.people().results();
+            for (int i = 0; i < people.size(); i++) {
+                TmdbPersonSummary person = people.get(i);
+                hits.add(new Hit("person", person.id(), person.name(), person.profilePath(),
+                        score(query, person.name(), person.popularity(), i)));
+            }
+        }
+        if (result.users() != null) {
+            List<UserHit> users = result.users().results();
+            for (int i = 0; i < users.size(); i++) {
+                UserHit user = users.get(i);
+                hits.add(new Hit("user", user.id(), user.name(), user.picture(),
+                        score(query, user.name(), null, i)));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private static double score(String query, String name, Double popularity, int position) {
+        double match = matchScore(query, name);
+        double boost = popularity != null ? Math.min(1, Math.log1p(popularity) / Math.log1p(POPULAR)) : 0;
+        return match * (1 + boost) - position * 0.001;
+    }
+
+    private static double matchScore(String query, String name) {
+        if (name == null) {
+            return 0;
+        }
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        String n = name.toLowerCase(Locale.ROOT);
+        if (n.equals(q)) {
+            return 1.0;
+        }
+        if (n.startsWith(q)) {
+            return 0.8;
+        }
+        if (n.contains(" " + q)) {
+            return 0.6;
+        }
+        // TMDB also matches on original titles and aliases, which still makes it a weak match
+        return n.contains(q) ? 0.4 : 0.2;
+    }
+
+    private static int parseCursor(String cursor) {
+        try {
+            return cursor != null ? Math.max(1, Integer.parseInt(cursor)) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SearchResult(String query, List<Hit> top, Section<TmdbMovieSummary> movies,
+            Section<TmdbPersonSummary> people, Section<UserHit> users) {
+
+        SearchResult withTop(List<Hit> top) {
+            return new SearchResult(query, top, movies, people, users);
+        }
+    }
+
+    /**
+     * One source's results. {@code status} is "ok", "timeout" or "error";
+     * {@code nextCursor} is null on the last page.
+     */
+    public record Section<T>(String status, List<T> results, String nextCursor) {
+
+        static <T> Section<T> failed(String status) {
+            return new Section<>(status, List.of(), null);
+        }
+    }
+
+    /**
+     * An entry of the merged ranking; {@code type} is "movie", "person" or
+     * "user" and {@code image} the poster, profile picture or avatar.
+     */
+    public record Hit(String type, long id, String name, String image, double score) {
+    }
+
+    public record UserHit(Long id, String name, String username, String picture) {
+
+        static UserHit of(User user) {
+            return new UserHit(user.getId(), user.getName(),
+                    user.getEmail() != null ? user.getEmail().split("@")[0] : "",
+                    user.getAvatarUrl() != null ? user.getAvatarUrl() : "");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.Review;
+import com.moviereview.backend.model.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that bumps the {@link ProfileVersions} of the user a
+ * changed user, review or list belongs to, and drops changed users from the
+ * {@link UserCache}. Hibernate creates it through Spring, so both are
+ * injected.
+ */
+public class ProfileChangeListener {
+
+    private final ProfileVersions profileVersions;
+    private final UserCache userCache;
+
+    public ProfileChangeListener(ProfileVersions profileVersions, UserCache userCache) {
+        this.profileVersions = profileVersions;
+        this.userCache = userCache;
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof User user) {
+            userCache.removed(user.getId());
+        }
+        changed(entity);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void changed(Object entity) {
+        if (entity instanceof User user) {
+            profileVersions.touch(user.getId());
+            userCache.invalidate(user.getId());
+        } else if (entity instanceof Review review && review.getUser() != null) {
+            profileVersions.touch(review.getUser().getId());
+        } else if (entity instanceof MovieList list && list.getUser() != null) {
+            profileVersions.touch(list.getUser().getId());
+        }
+    }
+}
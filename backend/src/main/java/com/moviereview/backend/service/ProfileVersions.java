@@ -0,0 +1,67 @@
+package com.moviereview.backend.service;
+
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory version counters for user profiles, bumped whenever something
+ * shown on a profile changes: the user itself, their reviews or lists, or
+ * who they follow and are followed by.
+ *
+ * Profile entity tags are built from these counters so a repeat view can be
+ * answered with 304 without touching the database. Counters start from the
+ * boot time, so tags issued before a restart never match afterwards.
+ *
+ * The counters live in this process and are only bumped by changes made
+ * through it, so this assumes a single instance serves profiles. With
+ * several instances, a change made through another one leaves this
+ * instance's tags (and the profile bodies cached under them) unchanged
+ * until something changes here; such bodies only last as long as the
+ * {@link ResponseBodyCache} keeps them.
+ */
+@Component
+public class ProfileVersions {
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Bumps the user's version. Inside a transaction this waits for the
+     * commit, so a tag is never paired with data that is not visible yet.
+     */
+    public void touch(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.merge(userId, 1L, Long::sum);
+                }
+            });
+        } else {
+            versions.merge(userId, 1L, Long::sum);
+        }
+    }
+
+    public long version(Long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Strong entity tag for {@code userId}'s profile as seen by the user
+     * {@code viewerId} (the profile shows whether the viewer follows the
+     * user), or by an anonymous visitor if null. The year is included because
+     * the profile counts this year's reviews.
+     */
+    public String etag(Long userId, Long viewerId) {
+        return "\"" + Long.toHexString(epoch) + "-" + userId + "-" + Long.toHexString(version(userId)) + "-"
+                + (viewerId != null ? viewerId : "") + "-" + Year.now() + "\"";
+    }
+}
@@ -0,0 +1,96 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serialized and gzipped response bodies of hot read endpoints.
+ *
+ * Bodies are keyed by the entity tag of the value they were rendered from,
+ * so a changed value gets a new key and the outdated body simply ages out.
+ * Sparse fieldset renderings ({@link Fieldset}) are cached next to the full
+ * body under their own keys.
+ * The total size of the cached bodies is bounded by
+ * {@code http.body-cache.max-size}, and each body is dropped
+ * {@code http.body-cache.ttl} after it was rendered, so one whose key did
+ * not change when it should have (e.g. a profile changed through another
+ * instance) is not served for longer. Hit/miss counters are published under
+ * the "response-bodies" cache name.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, EncodedBody> cache;
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+            @Value("${http.body-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${http.body-cache.ttl:30m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, EncodedBody body) -> key.length() + body.size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "response-bodies");
+    }
+
+    public EncodedBody getIfPresent(String key) {
+        return key != null ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Returns the encoded body of {@code value}, rendering it only if nothing
+     * is cached under {@code key} yet. Without a key (the value has no
+     * version to key it by) the body is rendered and not cached.
+     */
+    public EncodedBody get(String key, Object value) {
+        if (key == null) {
+            return encode(value);
+        }
+        return cache.get(key, k -> encode(value));
+    }
+
+    public EncodedBody getIfPresent(String key, Fieldset fields) {
+        return getIfPresent(fieldsKey(key, fields));
+    }
+
+    /**
+     * Like {@link #get(String, Object)}, rendering only {@code fields} of the
+     * value, or all of it if null. Each selection is cached separately.
+     */
+    public EncodedBody get(String key, Object value, Fieldset fields) {
+        if (fields == null) {
+            return get(key, value);
+        }
+        if (key == null) {
+            return encode(fields.apply(objectMapper, value));
+        }
+        return cache.get(fieldsKey(key, fields), k -> encode(fields.apply(objectMapper, value)));
+    }
+
+    private static String fieldsKey(String key, Fieldset fields) {
+        return key != null && fields != null ? key + "?fields=" + fields.key() : key;
+    }
+
+    public EncodedBody encode(Object value) {
+        try {
+            return EncodedBody.of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.moviereview.backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Approximate access frequencies of TMDB lookups, used to decide what to
+ * warm up after a restart.
+ *
+ * Frequencies are kept in a count-min sketch ({@code tmdb.warmup.sketch-width}
+ * counters in each of four rows), so memory does not grow with the number of
+ * distinct keys. Recording an access only increments atomic counters, so
+ * views never wait on each other. Since a sketch cannot list its keys, the
+ * most frequent ones are also tracked as up to {@code tmdb.warmup.candidates}
+ * candidates. Only keys that loaded are offered ({@link #admit}), so ids
+ * that do not exist are never warmed up; a key replaces the least frequent
+ * candidate once its estimate is higher. Counts are halved after every
+ * {@code 10 x width} accesses, so old popularity fades.
+ *
+ * The sketch is written to {@code tmdb.warmup.sketch-file} every
+ * {@code tmdb.warmup.persist-interval} and on shutdown, and restored on
+ * startup.
+ */
+@Component
+public class TmdbAccessSketch {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbAccessSketch.class);
+
+    private static final int MAGIC = 0x544d4153; // "TMAS"
+    // 2: candidates are only keys that loaded
+    private static final int FORMAT_VERSION = 2;
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = { 0x97cb3127, 0x0c5cf5f7, 0x5a2f7e19, 0x7ed55d16 };
+
+    private final boolean enabled;
+    private final int width;
+    private final int capacity;
+    private final Path file;
+    private final Duration persistInterval;
+    private final AtomicIntegerArray counters;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder total = new LongAdder();
+    private final AtomicInteger additions = new AtomicInteger();
+    // Lower bound of the candidates' estimates, which only grow until they are aged; 0 means unknown
+    private volatile int minCandidate;
+
+    public TmdbAccessSketch(@Value("${tmdb.warmup.enabled:false}") boolean enabled,
+            @Value("${tmdb.warmup.sketch-width:4096}") int width,
+            @Value("${tmdb.warmup.candidates:1000}") int capacity,
+            @Value("${tmdb.warmup.sketch-file:data/tmdb/access.sketch}") Path file,
+            @Value("${tmdb.warmup.persist-interval:5m}") Duration persistInterval) {
+        this.enabled = enabled;
+        // A power of two, so a row index is a mask of the hash
+        this.width = Integer.highestOneBit(Math.max(width, 16));
+        this.capacity = capacity;
+        this.file = file;
+        this.persistInterval = persistInterval;
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-access-sketch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        restore();
+        scheduler.scheduleWithFixedDelay(this::persist, persistInterval.toMillis(), persistInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        if (enabled) {
+            persist();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts one access to {@code key}, e.g. "movie:603".
+     */
+    public void record(String key) {
+        if (!enabled) {
+            return;
+        }
+        int hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            counters.getAndUpdate(index(hash, row), count -> count < Integer.MAX_VALUE ? count + 1 : count);
+        }
+        total.increment();
+        // Exactly one caller reaches the limit, and it resets the count
+        if (additions.incrementAndGet() == 10 * width) {
+            age();
+        }
+    }
+
+    /**
+     * Offers {@code key}, which has just loaded, as a warm-up candidate.
+     * Keys already tracked, never recorded or less frequent than every
+     * candidate return without taking the lock.
+     */
+    public void admit(String key) {
+        if (!enabled || candidates.contains(key)) {
+            return;
+        }
+        int estimate = estimate(key);
+        if (estimate == 0 || (candidates.size() >= capacity && estimate <= minCandidate)) {
+            return;
+        }
+        synchronized (candidates) {
+            if (candidates.contains(key)) {
+                return;
+            }
+            if (candidates.size() < capacity) {
+                candidates.add(key);
+                return;
+            }
+            String least = null;
+            int leastEstimate = Integer.MAX_VALUE;
+            for (String candidate : candidates) {
+                int candidateEstimate = estimate(candidate);
+                if (candidateEstimate < leastEstimate) {
+                    least = candidate;
+                    leastEstimate = candidateEstimate;
+                }
+            }
+            if (least != null && estimate > leastEstimate) {
+                candidates.remove(least);
+                candidates.add(key);
+            } else {
+                minCandidate = leastEstimate;
+            }
+        }
+    }
+
+    public int estimate(String key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * The {@code n} most frequently accessed keys starting with
+     * {@code prefix}, most frequent first.
+     */
+    public List<String> top(String prefix, int n) {
+        List<Map.Entry<String, Integer>> matching = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (candidate.startsWith(prefix)) {
+                matching.add(Map.entry(candidate, estimate(candidate)));
+            }
+        }
+        matching.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return matching.stream().limit(n).map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Estimated share of all recorded accesses that went to {@code keys}.
+     */
+    public double coverage(Collection<String> keys) {
+        long sum = total.sum();
+        if (sum == 0) {
+            return 0;
+        }
+        long covered = 0;
+        for (String key : keys) {
+            covered += estimate(key);
+        }
+        return Math.min(1, (double) covered / sum);
+    }
+
+    /**
+     * Halves all counts. Accesses recorded meanwhile may be halved or not,
+     * which the estimates can afford.
+     */
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        total.add(-(total.sum() + 1) / 2);
+        synchronized (candidates) {
+            candidates.removeIf(candidate -> estimate(candidate) == 0);
+            minCandidate = 0;
+        }
+        additions.set(0);
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b1;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+
+    void persist() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(width);
+                out.writeLong(total.sum());
+                out.writeInt(additions.get());
+                for (int i = 0; i < counters.length(); i++) {
+                    out.writeInt(counters.get(i));
+                }
+                List<String> saved = List.copyOf(candidates);
+                out.writeInt(saved.size());
+                for (String candidate : saved) {
+                    out.writeUTF(candidate);
+                    out.writeInt(estimate(candidate));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not save TMDB access sketch: {}", e.getMessage());
+        }
+    }
+
+    void restore() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != width) {
+                logger.info("Ignoring TMDB access sketch written with a different format or width");
+                return;
+            }
+            long savedTotal = in.readLong();
+            int savedAdditions = in.readInt();
+            int[] saved = new int[counters.length()];
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = in.readInt();
+            }
+            List<String> savedCandidates = new ArrayList<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                // The saved estimate is only informative, the restored counters answer for it
+                in.readInt();
+                if (savedCandidates.size() < capacity) {
+                    savedCandidates.add(key);
+                }
+            }
+            for (int i = 0; i < saved.length; i++) {
+                counters.set(i, saved[i]);
+            }
+            synchronized (candidates) {
+                candidates.clear();
+                candidates.addAll(savedCandidates);
+                minCandidate = 0;
+            }
+            total.reset();
+            total.add(savedTotal);
+            additions.set(Math.min(savedAdditions, 10 * width - 1));
+            logger.info("Restored TMDB access sketch with {} candidates over {} accesses", candidates.size(),
+                    savedTotal);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable TMDB access sketch: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process cache for TMDB responses.
+ *
+ * Entries are keyed by the TMDB request URL (without the api key), expire
+ * after a TTL that depends on the endpoint, and are evicted by Caffeine's
+ * frequency-aware policy once the total size of the cached response bodies
+ * exceeds the configured byte budget. Not-found responses and empty search
+ * results are cached as negative entries with their own, shorter TTL.
+ * Hit/miss/eviction counters are published under the "tmdb" cache name.
+ */
+@Component
+public class TmdbCache {
+
+    private final Cache<String, Entry> cache;
+    private final Map<TmdbEndpoint, Duration> ttls = new EnumMap<>(TmdbEndpoint.class);
+    private final Duration negativeTtl;
+
+    public TmdbCache(@Value("${tmdb.cache.max-size:64MB}") DataSize maxSize,
+            @Value("${tmdb.cache.ttl.trending:10m}") Duration trendingTtl,
+            @Value("${tmdb.cache.ttl.movie:6h}") Duration movieTtl,
+            @Value("${tmdb.cache.ttl.person:24h}") Duration personTtl,
+            @Value("${tmdb.cache.ttl.search:30m}") Duration searchTtl,
+            @Value("${tmdb.cache.ttl.negative:5m}") Duration negativeTtl,
+            MeterRegistry meterRegistry) {
+        ttls.put(TmdbEndpoint.TRENDING, trendingTtl);
+        ttls.put(TmdbEndpoint.MOVIE, movieTtl);
+        ttls.put(TmdbEndpoint.PERSON, personTtl);
+        ttls.put(TmdbEndpoint.PERSON_CREDITS, personTtl);
+        ttls.put(TmdbEndpoint.SEARCH_MOVIE, searchTtl);
+        ttls.put(TmdbEndpoint.SEARCH_PERSON, searchTtl);
+        this.negativeTtl = negativeTtl;
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.size())
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tmdb");
+    }
+
+    /**
+     * Returns the cached entry for the given key, or null on a miss.
+     */
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches a successful response. {@code size} is the length of the
+     * response body the value was parsed from.
+     */
+    public void put(String key, TmdbEndpoint endpoint, Object value, int size) {
+        put(key, endpoint, value, size, System.currentTimeMillis());
+    }
+
+    /**
+     * Caches a response that was fetched from TMDB at {@code fetchedAt}
+     * (epoch millis), e.g. one restored from the disk store. The entry only
+     * lives for what is left of its TTL.
+     */
+    public void put(String key, TmdbEndpoint endpoint, Object value, int size, long fetchedAt) {
+        cache.put(key, new Entry(endpoint, value, size, false, fetchedAt));
+    }
+
+    /**
+     * Caches a negative result (not found, or a search with no results).
+     * The value may be null.
+     */
+    public void putNegative(String key, TmdbEndpoint endpoint, Object value, int size) {
+        cache.put(key, new Entry(endpoint, value, size, true, System.currentTimeMillis()));
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public Duration ttl(TmdbEndpoint endpoint) {
+        return ttls.get(endpoint);
+    }
+
+    public record Entry(TmdbEndpoint endpoint, Object value, int size, boolean negative, long fetchedAt) {
+    }
+
+    private class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            Duration ttl = entry.negative() ? negativeTtl : ttls.get(entry.endpoint());
+            long age = System.currentTimeMillis() - entry.fetchedAt();
+            return Math.max(0, ttl.minusMillis(age).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.moviereview.backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.moviereview.backend.model.tmdb.TmdbChange;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps cached TMDB movie and person details fresh by following TMDB's
+ * change lists ({@code /movie/changes}, {@code /person/changes}) instead of
+ * relying on TTLs alone.
+ *
+ * Every {@code tmdb.changes.interval} the ids changed since the checkpoint
+ * are fetched and handed to {@link TmdbService}, which drops only those
+ * entries from the cache tiers and reloads the ones still in demand. The
+ * checkpoint is written to {@code tmdb.changes.checkpoint-file} after each
+ * completed range, so after downtime the feed catches up from where it
+ * stopped, in ranges of at most 14 days (TMDB's limit). A failed poll leaves
+ * the checkpoint where it was and the next poll retries the same range.
+ *
+ * TMDB only reports changes by day, without a time. Entries for an id
+ * changed on a past day are kept if they were fetched after that day ended.
+ * The current day is still open and every poll lists it again, so an id
+ * reported for it is applied only the first time (entries fetched after
+ * that poll started are kept); once the day has ended it is gone over again
+ * as a past day, which catches later changes to the same id that day. The
+ * ids applied today are only kept in memory, so after a restart they are
+ * applied once more. The feed looks back at most
+ * {@code tmdb.changes.max-catch-up}, which is also where it starts without
+ * a checkpoint, so movie and person TTLs should not be longer than that.
+ */
+@Service
+public class TmdbChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbChangeFeed.class);
+
+    static final int MAX_RANGE_DAYS = 14;
+
+    private enum Kind {
+        MOVIE("movie"), PERSON("person");
+
+        final String path;
+
+        Kind(String path) {
+            this.path = path;
+        }
+    }
+
+    private final TmdbService tmdbService;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Path checkpointFile;
+    private final Duration maxCatchUp;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Kind, Map<TmdbService.ChangeOutcome, Counter>> outcomes = new EnumMap<>(Kind.class);
+    private final Counter pollFailures;
+
+    private volatile long checkpoint;
+    private LocalDate appliedDay;
+    private final Map<Kind, Set<Long>> appliedToday = new EnumMap<>(Kind.class);
+
+    public TmdbChangeFeed(TmdbService tmdbService,
+            @Value("${tmdb.changes.enabled:false}") boolean enabled,
+            @Value("${tmdb.changes.interval:15m}") Duration interval,
+            @Value("${tmdb.changes.checkpoint-file:data/tmdb/changes.checkpoint}") Path checkpointFile,
+            @Value("${tmdb.changes.max-catch-up:7d}") Duration maxCatchUp,
+            MeterRegistry meterRegistry) {
+        this.tmdbService = tmdbService;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.checkpointFile = checkpointFile;
+        this.maxCatchUp = maxCatchUp;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Kind kind : Kind.values()) {
+            Map<TmdbService.ChangeOutcome, Counter> counters = new EnumMap<>(TmdbService.ChangeOutcome.class);
+            for (TmdbService.ChangeOutcome outcome : TmdbService.ChangeOutcome.values()) {
+                counters.put(outcome, Counter.builder("tmdb.changes")
+                        .tag("type", kind.path)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            outcomes.put(kind, counters);
+        }
+        this.pollFailures = Counter.builder("tmdb.changes.failures").register(meterRegistry);
+        Gauge.builder("tmdb.changes.lag", this, feed -> feed.checkpoint == 0 ? 0
+                : (System.currentTimeMillis() - feed.checkpoint) / 1000.0)
+                .baseUnit("seconds").description("Time since the last change checkpoint").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        restoreCheckpoint();
+        scheduler.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    private void poll() {
+        try {
+            sync(System.currentTimeMillis());
+        } catch (Exception e) {
+            pollFailures.increment();
+            logger.warn("TMDB change sync failed, retrying from {} in {}: {}", Instant.ofEpochMilli(checkpoint),
+                    interval, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies every change from the checkpoint up to {@code now}: the past
+     * days one range of at most {@link #MAX_RANGE_DAYS} days at a time, then
+     * the current day. The checkpoint moves past each range once it is done.
+     */
+    synchronized void sync(long now) throws IOException {
+        long oldest = now - maxCatchUp.toMillis();
+        if (checkpoint < oldest) {
+            if (checkpoint > 0) {
+                logger.warn("TMDB change checkpoint {} is older than {}, skipping ahead",
+                        Instant.ofEpochMilli(checkpoint), maxCatchUp);
+            }
+            checkpoint = oldest;
+        }
+        LocalDate today = date(now);
+        if (!today.equals(appliedDay)) {
+            appliedToday.clear();
+            appliedDay = today;
+        }
+        LocalDate start = date(checkpoint);
+        while (start.isBefore(today)) {
+            LocalDate end = start.plusDays(MAX_RANGE_DAYS - 1);
+            if (!end.isBefore(today)) {
+                end = today.minusDays(1);
+            }
+            // Anything fetched after the range's last day ended already has its changes
+            long covered = end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            for (Kind kind : Kind.values()) {
+                apply(kind, changedIds(kind, start, end), covered);
+            }
+            writeCheckpoint(covered);
+            start = end.plusDays(1);
+        }
+        for (Kind kind : Kind.values()) {
+            Set<Long> applied = appliedToday.computeIfAbsent(kind, k -> new HashSet<>());
+            Set<Long> ids = changedIds(kind, today, today);
+            ids.removeAll(applied);
+            apply(kind, ids, now);
+            applied.addAll(ids);
+        }
+        writeCheckpoint(now);
+    }
+
+    private Set<Long> changedIds(Kind kind, LocalDate start, LocalDate end) throws IOException {
+        Set<Long> ids = new LinkedHashSet<>();
+        int page = 1;
+        int totalPages;
+        do {
+            TmdbPage<TmdbChange> changes = tmdbService.getChanges(kind.path, start, end, page);
+            if (changes.results() != null) {
+                changes.results().forEach(change -> ids.add(change.id()));
+            }
+            totalPages = changes.totalPages();
+            page++;
+        } while (page <= totalPages);
+        return ids;
+    }
+
+    private void apply(Kind kind, Set<Long> ids, long changedBefore) {
+        Map<TmdbService.ChangeOutcome, Counter> counters = outcomes.get(kind);
+        int touched = 0;
+        for (Long id : ids) {
+            TmdbService.ChangeOutcome outcome = kind == Kind.MOVIE
+                    ? tmdbService.applyMovieChange(String.valueOf(id), changedBefore)
+                    : tmdbService.applyPersonChange(String.valueOf(id), changedBefore);
+            counters.get(outcome).increment();
+            if (outcome.compareTo(TmdbService.ChangeOutcome.EVICTED) >= 0) {
+                touched++;
+            }
+        }
+        if (touched > 0) {
+            logger.info("Applied {} of {} TMDB {} changes to the cache", touched, ids.size(), kind.path);
+        }
+    }
+
+    void restoreCheckpoint() {
+        if (!Files.exists(checkpointFile)) {
+            return;
+        }
+        try {
+            checkpoint = Instant.parse(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim())
+                    .toEpochMilli();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable TMDB change checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void writeCheckpoint(long covered) throws IOException {
+        if (checkpointFile.getParent() != null) {
+            Files.createDirectories(checkpointFile.getParent());
+        }
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, Instant.ofEpochMilli(covered).toString(), StandardCharsets.UTF_8);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = covered;
+    }
+
+    private static LocalDate date(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
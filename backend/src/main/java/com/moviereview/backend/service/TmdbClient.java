@@ -0,0 +1,308 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Performs the actual HTTP calls to TMDB.
+ *
+ * Every call runs on the TMDB bulkhead pool rather than on the caller's
+ * thread and goes through the TMDB circuit breaker. The caller waits at most
+ * {@code tmdb.resilience.call-timeout}; when the breaker is open or the
+ * bulkhead is full the call fails immediately instead of queueing up request
+ * threads behind a slow TMDB.
+ *
+ * With {@code tmdb.hedge.enabled} a call that has not answered within the
+ * {@code tmdb.hedge.percentile} of recent TMDB latencies is hedged: an
+ * identical request is sent and whichever succeeds first wins. Every call
+ * earns {@code tmdb.hedge.budget} of a hedge, so hedges add at most that
+ * share of extra upstream requests. No hedges are sent while TMDB is
+ * throttling us or the breaker is not closed. All TMDB calls are GETs, so
+ * sending one twice is safe. Published as tmdb.hedge{outcome=issued|won|skipped}.
+ *
+ * The losing attempt of a hedged call and an attempt the caller stopped
+ * waiting for are aborted: with the {@link AbortableRequestFactory} their
+ * connection is closed, freeing the bulkhead thread at once, and an attempt
+ * still queued on the bulkhead is not sent at all. Aborted attempts end in
+ * a {@link CancellationException}, which the circuit breaker ignores, and
+ * their latency is not recorded.
+ */
+@Component
+public class TmdbClient {
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final double MAX_HEDGE_TOKENS = 10;
+    private static final long HEDGE_THROTTLE_PAUSE_MILLIS = 30_000;
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolBulkhead bulkhead;
+    private final Duration callTimeout;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMillis;
+    private final double hedgeBudget;
+    private final Counter hedgesIssued;
+    private final Counter hedgesWon;
+    private final Counter hedgesSkipped;
+
+    // Recent upstream health, read by background work that should yield to user requests
+    private volatile long lastThrottledAt;
+    private volatile double averageLatencyMillis;
+
+    // Ring of recent latencies the hedge delay is derived from
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private volatile long hedgeDelayMillis;
+    private double hedgeTokens;
+
+    public TmdbClient(@Qualifier("tmdbRestTemplate") RestTemplate restTemplate, CircuitBreaker circuitBreaker,
+            ThreadPoolBulkhead bulkhead, @Value("${tmdb.resilience.call-timeout:6s}") Duration callTimeout,
+            @Value("${tmdb.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${tmdb.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${tmdb.hedge.min-delay:50ms}") Duration hedgeMinDelay,
+            @Value("${tmdb.hedge.budget:0.05}") double hedgeBudget,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.callTimeout = callTimeout;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMillis = hedgeMinDelay.toMillis();
+        this.hedgeBudget = hedgeBudget;
+        // Until enough latencies are known, only calls slower than half the timeout are hedged
+        this.hedgeDelayMillis = Math.max(hedgeMinDelayMillis, callTimeout.toMillis() / 2);
+        this.hedgesIssued = Counter.builder("tmdb.hedge").tag("outcome", "issued").register(meterRegistry);
+        this.hedgesWon = Counter.builder("tmdb.hedge").tag("outcome", "won").register(meterRegistry);
+        this.hedgesSkipped = Counter.builder("tmdb.hedge").tag("outcome", "skipped").register(meterRegistry);
+    }
+
+    /**
+     * Fetches the raw response body of a TMDB URL. RestTemplate exceptions
+     * are rethrown unchanged; an open breaker or full bulkhead surfaces as
+     * {@code CallNotPermittedException} or {@code BulkheadFullException}, and
+     * a timeout as an {@link IllegalStateException}.
+     */
+    public byte[] get(String url) {
+        long deadline = System.nanoTime() + callTimeout.toNanos();
+        Attempt primary = submit(url);
+        if (!hedgeEnabled) {
+            try {
+                return await(primary.result, deadline);
+            } finally {
+                primary.abortUnlessDone();
+            }
+        }
+        earnHedge();
+
+        long delay = hedgeDelayMillis;
+        Attempt hedge = null;
+        try {
+            try {
+                return primary.result.get(delay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Slower than usual, consider hedging below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for TMDB", e);
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+
+            if (millisSinceThrottled() < HEDGE_THROTTLE_PAUSE_MILLIS || !isCircuitClosed() || !spendHedge()) {
+                hedgesSkipped.increment();
+                return await(primary.result, deadline);
+            }
+            try {
+                hedge = submit(url);
+            } catch (RuntimeException e) {
+                // Bulkhead full or breaker just opened; the primary is still running
+                hedgesSkipped.increment();
+                return await(primary.result, deadline);
+            }
+            hedgesIssued.increment();
+
+            CompletableFuture<byte[]> first = new CompletableFuture<>();
+            AtomicInteger failures = new AtomicInteger();
+            primary.result.whenComplete((body, error) -> complete(first, body, error, failures));
+            hedge.result.whenComplete((body, error) -> {
+                if (complete(first, body, error, failures)) {
+                    hedgesWon.increment();
+                }
+            });
+            return await(first, deadline);
+        } finally {
+            primary.abortUnlessDone();
+            if (hedge != null) {
+                hedge.abortUnlessDone();
+            }
+        }
+    }
+
+    private Attempt submit(String url) {
+        Attempt attempt = new Attempt();
+        attempt.result = bulkhead.executeSupplier(circuitBreaker.decorateSupplier(() -> fetch(url, attempt)))
+                .toCompletableFuture();
+        return attempt;
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("TMDB call timed out after " + callTimeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for TMDB", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    /**
+     * Completes {@code first} with the first successful attempt, or with the
+     * last failure once both attempts failed. Returns whether this attempt
+     * was the one that completed it.
+     */
+    private static boolean complete(CompletableFuture<byte[]> first, byte[] body, Throwable error,
+            AtomicInteger failures) {
+        if (error == null) {
+            return first.complete(body);
+        }
+        if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+        }
+        return false;
+    }
+
+    private synchronized void earnHedge() {
+        hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + hedgeBudget);
+    }
+
+    private synchronized boolean spendHedge() {
+        if (hedgeTokens < 1) {
+            return false;
+        }
+        hedgeTokens--;
+        return true;
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[latencyCount++ % LATENCY_SAMPLES] = millis;
+        // Re-derive the delay every few calls once the ring has filled up a bit
+        if (latencyCount >= 32 && latencyCount % 16 == 0) {
+            long[] sorted = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+            Arrays.sort(sorted);
+            long percentile = sorted[(int) Math.min(sorted.length - 1, Math.floor(hedgePercentile * sorted.length))];
+            hedgeDelayMillis = Math.max(hedgeMinDelayMillis, percentile);
+        }
+    }
+
+    public long hedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+
+    private byte[] fetch(String url, Attempt attempt) {
+        if (attempt.isAborted()) {
+            throw new CancellationException("TMDB call no longer needed");
+        }
+        long started = System.nanoTime();
+        try {
+            return AbortableRequestFactory.track(attempt::sent, () -> restTemplate.getForObject(url, byte[].class));
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            lastThrottledAt = System.currentTimeMillis();
+            throw e;
+        } catch (RuntimeException e) {
+            if (attempt.isAborted()) {
+                throw new CancellationException("TMDB call aborted");
+            }
+            throw e;
+        } finally {
+            if (!attempt.isAborted()) {
+                double latency = (System.nanoTime() - started) / 1_000_000.0;
+                // Exponentially weighted, so a slowdown shows up within a few calls
+                averageLatencyMillis = averageLatencyMillis * 0.8 + latency * 0.2;
+                recordLatency((long) latency);
+            }
+        }
+    }
+
+    /**
+     * Milliseconds since TMDB last answered 429 Too Many Requests.
+     */
+    public long millisSinceThrottled() {
+        return System.currentTimeMillis() - lastThrottledAt;
+    }
+
+    public double averageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    public boolean isCircuitClosed() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * One request to TMDB on the bulkhead, with a handle on its HTTP
+     * exchange once that has started.
+     */
+    private static final class Attempt {
+
+        private CompletableFuture<byte[]> result;
+        private Cancellable request;
+        private boolean aborted;
+
+        synchronized void sent(Cancellable request) {
+            if (aborted) {
+                request.cancel();
+            } else {
+                this.request = request;
+            }
+        }
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * Closes the exchange if it is in flight, or keeps it from being
+         * sent if the attempt is still queued.
+         */
+        synchronized void abortUnlessDone() {
+            if (result.isDone()) {
+                return;
+            }
+            aborted = true;
+            if (request != null) {
+                request.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.moviereview.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Persistent store for raw TMDB response bodies, so restarts come up warm.
+ *
+ * Responses are appended to a single segment file and located through an
+ * in-memory index of key to record position. Reads go through a read-only
+ * memory mapping of the segment. On graceful shutdown the index is written
+ * to a snapshot file; on startup it is restored from that snapshot and any
+ * records appended after it are recovered by scanning the tail of the
+ * segment. A compaction pass rewrites the segment with only the latest,
+ * unexpired record per key when it grows past its size budget or is mostly
+ * garbage.
+ *
+ * Compaction runs on a background thread and copies the segment without
+ * holding the store's lock; it only takes the lock at the end to copy the
+ * records appended in the meantime and swap in the new segment. The mapping
+ * is grown a sixteenth of the size budget at a time (extending the file
+ * ahead of the appends), so new records are usually already mapped and
+ * reads never take the lock. Appends are written through the channel and
+ * seen through the shared page cache of the mapping.
+ *
+ * Segment layout: a 16-byte header (magic, version, generation) followed by
+ * records of
+ * {@code [int length][byte endpoint][long storedAt][short keyLength][key][body][int crc]}
+ * where {@code length} covers everything between itself and the crc. An
+ * endpoint of -1 marks a tombstone.
+ */
+@Component
+public class TmdbDiskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbDiskStore.class);
+
+    private static final int SEGMENT_MAGIC = 0x544d5347; // "TMSG"
+    private static final int INDEX_MAGIC = 0x544d4958; // "TMIX"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 16;
+    private static final int RECORD_FIXED_SIZE = 4 + 1 + 8 + 2 + 4;
+    private static final byte TOMBSTONE = -1;
+    private static final int MAPPING_CHUNKS = 16;
+    private static final long MIN_MAPPING_CHUNK = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path segmentFile;
+    private final Path indexFile;
+    private final long maxSize;
+    private final Duration maxAge;
+    private final long mappingChunk;
+    private final ExecutorService compactor;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private volatile Mapping mapping;
+    private long generation;
+    private long writePosition;
+    private long liveBytes;
+    private boolean compacting;
+    private Future<?> compaction;
+
+    public TmdbDiskStore(@Value("${tmdb.store.enabled:false}") boolean enabled,
+            @Value("${tmdb.store.dir:data/tmdb}") Path directory,
+            @Value("${tmdb.store.max-size:256MB}") DataSize maxSize,
+            @Value("${tmdb.store.max-age:30d}") Duration maxAge) {
+        this.enabled = enabled;
+        this.segmentFile = directory.resolve("tmdb.segment");
+        this.indexFile = directory.resolve("tmdb.index");
+        // A single mapping cannot exceed 2GB
+        this.maxSize = Math.min(maxSize.toBytes(), Integer.MAX_VALUE);
+        this.maxAge = maxAge;
+        this.mappingChunk = Math.max(MIN_MAPPING_CHUNK, this.maxSize / MAPPING_CHUNKS);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the segment and restores the index from the last snapshot.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(segmentFile.getParent());
+        channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        generation = readSegmentHeader(channel);
+        if (generation < 0) {
+            generation = System.currentTimeMillis();
+            channel.truncate(0);
+            writeSegmentHeader(channel, generation);
+            writePosition = SEGMENT_HEADER_SIZE;
+        } else {
+            long recovered = restoreSnapshot();
+            writePosition = scan(recovered);
+            channel.truncate(writePosition);
+        }
+        remap();
+
+        if (garbageBytes() > liveBytes) {
+            compact();
+        }
+        logger.info("TMDB disk store opened with {} entries ({} live bytes) in {} ms", index.size(), liveBytes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Flushes the segment and writes an index snapshot for the next startup.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        // A compaction still copying gives up once the channel is closed
+        compactor.shutdown();
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            // Drop the space preallocated for the mapping
+            channel.truncate(writePosition);
+            writeSnapshot();
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Error closing TMDB disk store: {}", e.getMessage());
+        }
+        channel = null;
+        mapping = null;
+    }
+
+    /**
+     * Returns the stored body for the given key, or null if there is none.
+     */
+    public StoredEntry get(String key) {
+        // A compaction swaps the mapping before the index entries, so a read racing it looks again once
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            Mapping current = mapping;
+            if (current != null && current.covers(location)) {
+                byte[] body = new byte[location.bodyLength()];
+                current.buffer().get((int) location.bodyOffset(), body);
+                return new StoredEntry(location.endpoint(), body, location.storedAt());
+            }
+        }
+        return null;
+    }
+
+    public synchronized void put(String key, TmdbEndpoint endpoint, byte[] body) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            append(key, (byte) endpoint.ordinal(), System.currentTimeMillis(), body);
+            if (writePosition > maxSize && !compacting) {
+                compacting = true;
+                compaction = compactor.submit(this::compactWhileOverBudget);
+            }
+        } catch (IOException e) {
+            logger.error("Error writing TMDB response to disk store: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void remove(String key) {
+        if (channel == null || !index.containsKey(key)) {
+            return;
+        }
+        try {
+            append(key, TOMBSTONE, System.currentTimeMillis(), new byte[0]);
+        } catch (IOException e) {
+            logger.error("Error removing TMDB response from disk store: {}", e.getMessage());
+        }
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Returns when the body for {@code key} was stored, or 0 if there is
+     * none.
+     */
+    public long storedAt(String key) {
+        Location location = index.get(key);
+        return location != null ? location.storedAt() : 0;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Rewrites the segment keeping only the latest record per key, dropping
+     * entries older than the configured max age and, if still over budget,
+     * the oldest entries until the segment is back under three quarters of
+     * its size budget. Records appended while it runs are kept.
+     */
+    public void compact() {
+        rewrite();
+    }
+
+    /**
+     * Waits for a compaction scheduled by {@link #put} to finish.
+     */
+    void awaitCompaction() throws InterruptedException, ExecutionException {
+        Future<?> pending;
+        synchronized (this) {
+            pending = compaction;
+        }
+        if (pending != null) {
+            pending.get();
+        }
+    }
+
+    private void compactWhileOverBudget() {
+        boolean compacted = true;
+        while (true) {
+            synchronized (this) {
+                // Checked under the lock, so a put crossing the budget either sees this run or starts the next
+                if (!compacted || channel == null || writePosition <= maxSize) {
+                    compacting = false;
+                    return;
+                }
+            }
+            compacted = rewrite();
+        }
+    }
+
+    private boolean rewrite() {
+        FileChannel source;
+        long sourceGeneration;
+        long copiedUpTo;
+        List<Map.Entry<String, Location>> live;
+        synchronized (this) {
+            if (channel == null) {
+                return false;
+            }
+            source = channel;
+            sourceGeneration = generation;
+            copiedUpTo = writePosition;
+            live = new ArrayList<>(index.entrySet());
+        }
+        long start = System.nanoTime();
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        live.removeIf(entry -> entry.getValue().storedAt() < oldest);
+        live.sort(Comparator.comparingLong(entry -> -entry.getValue().storedAt()));
+        long budget = maxSize * 3 / 4;
+
+        Path compacted = segmentFile.resolveSibling("tmdb.segment.compact");
+        Map<String, Location> newIndex = new HashMap<>();
+        long newGeneration = sourceGeneration + 1;
+        long before;
+        long after;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeSegmentHeader(out, newGeneration);
+            long position = SEGMENT_HEADER_SIZE;
+            long newLiveBytes = 0;
+            for (Map.Entry<String, Location> entry : live) {
+                Location location = entry.getValue();
+                if (position + location.recordSize() > budget) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(location.recordSize());
+                readFully(source, record, location.recordOffset());
+                writeFully(out, record, position);
+                newIndex.put(entry.getKey(), location.movedTo(newGeneration, position));
+                position += location.recordSize();
+                newLiveBytes += location.recordSize();
+            }
+
+            synchronized (this) {
+                if (channel != source) {
+                    return false;
+                }
+                before = writePosition;
+                // Replay what was appended (or removed) while copying
+                for (long offset = copiedUpTo; offset < writePosition;) {
+                    Record record = readRecord(source, offset, writePosition);
+                    if (record == null) {
+                        throw new IOException("Unreadable record at " + offset);
+                    }
+                    Location previous;
+                    if (record.endpoint() == TOMBSTONE) {
+                        previous = newIndex.remove(record.key());
+                    } else {
+                        writeFully(out, record.bytes(), position);
+                        previous = newIndex.put(record.key(), record.locatedAt(newGeneration, position));
+                        position += record.size();
+                        newLiveBytes += record.size();
+                    }
+                    if (previous != null) {
+                        newLiveBytes -= previous.recordSize();
+                    }
+                    offset += record.size();
+                }
+                out.force(true);
+
+                channel.close();
+                Files.move(compacted, segmentFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                generation = newGeneration;
+                writePosition = position;
+                after = position;
+                liveBytes = newLiveBytes;
+                remap();
+                index.keySet().retainAll(newIndex.keySet());
+                index.putAll(newIndex);
+                writeSnapshot();
+            }
+        } catch (ClosedChannelException e) {
+            // Closed while copying; the segment is left as it was
+            return false;
+        } catch (IOException e) {
+            logger.error("Error compacting TMDB disk store: {}", e.getMessage());
+            return false;
+        }
+        logger.info("Compacted TMDB disk store from {} to {} bytes ({} entries) in {} ms", before, after,
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private void append(String key, byte endpoint, long storedAt, byte[] body) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 8 + 2 + keyBytes.length + body.length;
+        ByteBuffer record = ByteBuffer.allocate(4 + length + 4);
+        record.putInt(length).put(endpoint).putLong(storedAt).putShort((short) keyBytes.length).put(keyBytes)
+                .put(body);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        long offset = writePosition;
+        writeFully(channel, record, offset);
+        writePosition += record.capacity();
+        if (writePosition > mapping.buffer().capacity()) {
+            remap();
+        }
+        apply(key, endpoint, storedAt, offset, record.capacity(), keyBytes.length, body.length);
+    }
+
+    private void apply(String key, byte endpoint, long storedAt, long recordOffset, int recordSize, int keyLength,
+            int bodyLength) {
+        Location previous;
+        if (endpoint == TOMBSTONE) {
+            previous = index.remove(key);
+        } else {
+            long bodyOffset = recordOffset + 4 + 1 + 8 + 2 + keyLength;
+            Location location = new Location(generation, recordOffset, recordSize, bodyOffset, bodyLength,
+                    storedAt, TmdbEndpoint.values()[endpoint]);
+            previous = index.put(key, location);
+            liveBytes += recordSize;
+        }
+        if (previous != null) {
+            liveBytes -= previous.recordSize();
+        }
+    }
+
+    /**
+     * Replays records from {@code position} to the end of the segment and
+     * returns the end of the last intact record.
+     */
+    private long scan(long position) throws IOException {
+        long size = channel.size();
+        Record record;
+        while ((record = readRecord(channel, position, size)) != null) {
+            apply(record.key(), record.endpoint(), record.storedAt(), position, record.size(), record.keyLength(),
+                    record.bodyLength());
+            position += record.size();
+        }
+        if (position < size) {
+            // After a crash this includes the space preallocated for the mapping
+            logger.warn("Discarding {} bytes of incomplete records at the end of the TMDB disk store",
+                    size - position);
+        }
+        return position;
+    }
+
+    /**
+     * Reads the record at {@code position}, or returns null if there is no
+     * intact record there before {@code end}.
+     */
+    private static Record readRecord(FileChannel in, long position, long end) throws IOException {
+        if (position + RECORD_FIXED_SIZE > end) {
+            return null;
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(in, lengthBuffer, position);
+        int length = lengthBuffer.getInt();
+        if (length < 1 + 8 + 2 || position + 4 + length + 4 > end) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(4 + length + 4);
+        bytes.putInt(length);
+        readFully(in, bytes, position);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 4, length);
+        if ((int) crc.getValue() != bytes.getInt(4 + length)) {
+            return null;
+        }
+        byte endpoint = bytes.get(4);
+        long storedAt = bytes.getLong(4 + 1);
+        int keyLength = Short.toUnsignedInt(bytes.getShort(4 + 1 + 8));
+        if (keyLength > length - 1 - 8 - 2) {
+            return null;
+        }
+        if (endpoint != TOMBSTONE && (endpoint < 0 || endpoint >= TmdbEndpoint.values().length)) {
+            return null;
+        }
+        String key = new String(bytes.array(), 4 + 1 + 8 + 2, keyLength, StandardCharsets.UTF_8);
+        return new Record(key, endpoint, storedAt, keyLength, bytes);
+    }
+
+    /**
+     * Loads the index snapshot if it belongs to the current segment and
+     * returns the segment position it covers.
+     */
+    private long restoreSnapshot() {
+        if (!Files.exists(indexFile)) {
+            return SEGMENT_HEADER_SIZE;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (buffer.getInt() != INDEX_MAGIC || buffer.getInt() != FORMAT_VERSION
+                    || buffer.getLong() != generation) {
+                return SEGMENT_HEADER_SIZE;
+            }
+            long covered = buffer.getLong();
+            if (covered > channel.size()) {
+                return SEGMENT_HEADER_SIZE;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] keyBytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(keyBytes);
+                Location location = new Location(generation, buffer.getLong(), buffer.getInt(), buffer.getLong(),
+                        buffer.getInt(), buffer.getLong(), TmdbEndpoint.values()[buffer.get()]);
+                index.put(new String(keyBytes, StandardCharsets.UTF_8), location);
+                liveBytes += location.recordSize();
+            }
+            return covered;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable TMDB index snapshot: {}", e.getMessage());
+            index.clear();
+            liveBytes = 0;
+            return SEGMENT_HEADER_SIZE;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        List<Map.Entry<String, Location>> entries = new ArrayList<>(index.entrySet());
+        int size = 4 + 4 + 8 + 8 + 4;
+        List<byte[]> keys = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Location> entry : entries) {
+            byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            keys.add(keyBytes);
+            size += 2 + keyBytes.length + 8 + 4 + 8 + 4 + 8 + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(INDEX_MAGIC).putInt(FORMAT_VERSION).putLong(generation).putLong(writePosition)
+                .putInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Location location = entries.get(i).getValue();
+            buffer.putShort((short) keys.get(i).length).put(keys.get(i))
+                    .putLong(location.recordOffset()).putInt(location.recordSize())
+                    .putLong(location.bodyOffset()).putInt(location.bodyLength())
+                    .putLong(location.storedAt()).put((byte) location.endpoint().ordinal());
+        }
+        Path temp = indexFile.resolveSibling("tmdb.index.tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeSegmentHeader(FileChannel out, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION).putLong(generation).flip();
+        out.write(header, 0);
+    }
+
+    /**
+     * Returns the segment generation, or -1 if the file is empty or not a
+     * segment this version can read.
+     */
+    private static long readSegmentHeader(FileChannel in) throws IOException {
+        if (in.size() < SEGMENT_HEADER_SIZE) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        readFully(in, header, 0);
+        if (header.getInt() != SEGMENT_MAGIC || header.getInt() != FORMAT_VERSION) {
+            logger.warn("Discarding unreadable TMDB disk store segment");
+            return -1;
+        }
+        return header.getLong();
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of TMDB disk store segment");
+            }
+        }
+        buffer.flip();
+    }
+
+    private long garbageBytes() {
+        return writePosition - SEGMENT_HEADER_SIZE - liveBytes;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Maps the segment up to the next chunk boundary past the write position.
+     */
+    private void remap() throws IOException {
+        long size = Math.min((writePosition / mappingChunk + 1) * mappingChunk, Integer.MAX_VALUE);
+        mapping = new Mapping(generation, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    public record StoredEntry(TmdbEndpoint endpoint, byte[] body, long storedAt) {
+    }
+
+    private record Mapping(long generation, MappedByteBuffer buffer) {
+
+        boolean covers(Location location) {
+            return location.generation() == generation
+                    && location.bodyOffset() + location.bodyLength() <= buffer.capacity();
+        }
+    }
+
+    private record Record(String key, byte endpoint, long storedAt, int keyLength, ByteBuffer bytes) {
+
+        int size() {
+            return bytes.capacity();
+        }
+
+        int bodyLength() {
+            return size() - RECORD_FIXED_SIZE - keyLength;
+        }
+
+        Location locatedAt(long generation, long recordOffset) {
+            return new Location(generation, recordOffset, size(), recordOffset + 4 + 1 + 8 + 2 + keyLength,
+                    bodyLength(), storedAt, TmdbEndpoint.values()[endpoint]);
+        }
+    }
+
+    private record Location(long generation, long recordOffset, int recordSize, long bodyOffset, int bodyLength,
+            long storedAt, TmdbEndpoint endpoint) {
+
+        Location movedTo(long newGeneration, long newRecordOffset) {
+            return new Location(newGeneration, newRecordOffset, recordSize,
+                    bodyOffset - recordOffset + newRecordOffset, bodyLength, storedAt, endpoint);
+        }
+    }
+}
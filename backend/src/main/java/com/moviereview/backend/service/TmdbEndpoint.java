@@ -0,0 +1,14 @@
+package com.moviereview.backend.service;
+
+/**
+ * The TMDB endpoints the backend talks to. Cache policies (TTLs) are
+ * configured per endpoint.
+ */
+public enum TmdbEndpoint {
+    TRENDING,
+    MOVIE,
+    PERSON,
+    PERSON_CREDITS,
+    SEARCH_MOVIE,
+    SEARCH_PERSON
+}
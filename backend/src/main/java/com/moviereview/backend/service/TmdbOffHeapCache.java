@@ -0,0 +1,347 @@
+package com.moviereview.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Second TMDB cache tier that keeps parsed responses outside the Java heap.
+ *
+ * Values are encoded as Smile, deflated, and copied into direct
+ * {@link ByteBuffer} pages, so tens of thousands of movies cost a few
+ * hundred bytes each and none of it is traced by the GC. They are only
+ * inflated and decoded again when read.
+ *
+ * Memory is handed out memcached-style: pages of {@code tmdb.offheap.page-size}
+ * are allocated lazily up to {@code tmdb.offheap.max-size}, each page is
+ * assigned to one size class and cut into equal chunks, and an entry takes
+ * the smallest chunk it fits in. When a class has no free chunk and no page
+ * is left, its least recently used entry is evicted; a class without any
+ * entries of its own takes over a page from the class holding the most.
+ *
+ * Published as tmdb.offheap.* gauges: reserved and used bytes, entry count
+ * and fragmentation (the share of assigned chunk bytes not used by entries),
+ * plus a decode timer and hit/miss/eviction counters.
+ */
+@Component
+public class TmdbOffHeapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbOffHeapCache.class);
+
+    private static final int MIN_CHUNK_SIZE = 128;
+    private static final double CHUNK_GROWTH = 1.25;
+
+    private final boolean enabled;
+    private final int pageSize;
+    private final int maxPages;
+    private final ObjectMapper smileMapper = new SmileMapper();
+    private final SizeClass[] classes;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private final List<Integer> pageOwners = new ArrayList<>();
+    private final Map<String, Slot> index = new HashMap<>();
+    private long usedBytes;
+    private long assignedBytes;
+
+    private final Timer decodeTimer;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public TmdbOffHeapCache(@Value("${tmdb.offheap.enabled:false}") boolean enabled,
+            @Value("${tmdb.offheap.max-size:256MB}") DataSize maxSize,
+            @Value("${tmdb.offheap.page-size:1MB}") DataSize pageSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.pageSize = (int) pageSize.toBytes();
+        this.maxPages = (int) Math.max(1, maxSize.toBytes() / this.pageSize);
+
+        List<SizeClass> sizes = new ArrayList<>();
+        for (double size = MIN_CHUNK_SIZE; size < this.pageSize; size *= CHUNK_GROWTH) {
+            // 8-byte aligned chunks
+            sizes.add(new SizeClass(sizes.size(), ((int) size + 7) & ~7));
+        }
+        sizes.add(new SizeClass(sizes.size(), this.pageSize));
+        this.classes = sizes.toArray(new SizeClass[0]);
+
+        this.decodeTimer = Timer.builder("tmdb.offheap.decode")
+                .description("Time to inflate and decode an off-heap TMDB entry")
+                .register(meterRegistry);
+        this.hits = Counter.builder("tmdb.offheap.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("tmdb.offheap.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("tmdb.offheap.evictions").register(meterRegistry);
+        Gauge.builder("tmdb.offheap.reserved", this, cache -> cache.stats().reservedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("tmdb.offheap.used", this, cache -> cache.stats().usedBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("tmdb.offheap.entries", this, cache -> cache.stats().entries()).register(meterRegistry);
+        Gauge.builder("tmdb.offheap.fragmentation", this, cache -> cache.stats().fragmentation())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores {@code value}, replacing any entry under the same key. Values
+     * that do not fit in a single page are not stored.
+     */
+    public void put(String key, TmdbEndpoint endpoint, Object value, long fetchedAt) {
+        if (!enabled || value == null) {
+            return;
+        }
+        byte[] raw;
+        try {
+            raw = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            logger.warn("Could not encode {} for the off-heap cache: {}", key, e.getMessage());
+            return;
+        }
+        byte[] compressed = deflate(raw);
+        if (compressed.length > pageSize) {
+            return;
+        }
+
+        synchronized (this) {
+            remove(key);
+            SizeClass sizeClass = classFor(compressed.length);
+            long chunk = allocate(sizeClass);
+            if (chunk < 0) {
+                return;
+            }
+            int page = (int) (chunk >>> 32);
+            int offset = (int) chunk;
+            pages.get(page).put(offset, compressed);
+            Slot slot = new Slot(key, sizeClass.id, page, offset, compressed.length, raw.length, endpoint,
+                    fetchedAt);
+            index.put(key, slot);
+            sizeClass.entries.put(key, slot);
+            usedBytes += compressed.length;
+            assignedBytes += sizeClass.chunkSize;
+        }
+    }
+
+    /**
+     * Returns the decoded entry for {@code key}, or null if there is none.
+     * Only the compressed bytes are copied while the cache is locked.
+     */
+    public Entry get(String key, JavaType type) {
+        if (!enabled) {
+            return null;
+        }
+        Slot slot;
+        byte[] compressed;
+        synchronized (this) {
+            slot = index.get(key);
+            if (slot == null) {
+                misses.increment();
+                return null;
+            }
+            // Marks the entry as recently used
+            classes[slot.sizeClass].entries.get(key);
+            compressed = new byte[slot.length];
+            pages.get(slot.page).get(slot.offset, compressed);
+        }
+        hits.increment();
+
+        long started = System.nanoTime();
+        try {
+            Object value = smileMapper.readerFor(type).readValue(inflate(compressed, slot.rawLength));
+            return new Entry(slot.endpoint, value, slot.rawLength, slot.fetchedAt);
+        } catch (IOException | DataFormatException e) {
+            logger.warn("Dropping unreadable off-heap entry {}: {}", key, e.getMessage());
+            invalidate(key);
+            return null;
+        } finally {
+            decodeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Returns when the entry for {@code key} was fetched, or 0 if there is
+     * none.
+     */
+    public synchronized long fetchedAt(String key) {
+        Slot slot = index.get(key);
+        return slot != null ? slot.fetchedAt : 0;
+    }
+
+    public synchronized void invalidate(String key) {
+        remove(key);
+    }
+
+    public synchronized Stats stats() {
+        double fragmentation = assignedBytes == 0 ? 0 : 1 - (double) usedBytes / assignedBytes;
+        return new Stats(index.size(), (long) pages.size() * pageSize, usedBytes, fragmentation);
+    }
+
+    private void remove(String key) {
+        Slot slot = index.remove(key);
+        if (slot == null) {
+            return;
+        }
+        SizeClass sizeClass = classes[slot.sizeClass];
+        sizeClass.entries.remove(key);
+        sizeClass.free.push(chunk(slot.page, slot.offset));
+        usedBytes -= slot.length;
+        assignedBytes -= sizeClass.chunkSize;
+    }
+
+    private SizeClass classFor(int length) {
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass.chunkSize >= length) {
+                return sizeClass;
+            }
+        }
+        throw new IllegalArgumentException("Entry of " + length + " bytes exceeds the page size");
+    }
+
+    private long allocate(SizeClass sizeClass) {
+        if (sizeClass.free.isEmpty()) {
+            if (pages.size() < maxPages) {
+                ByteBuffer page = ByteBuffer.allocateDirect(pageSize);
+                pages.add(page);
+                pageOwners.add(-1);
+                assignPage(pages.size() - 1, sizeClass);
+            } else if (!sizeClass.entries.isEmpty()) {
+                evict(sizeClass.entries.values().iterator().next());
+            } else {
+                reassignPage(sizeClass);
+            }
+        }
+        return sizeClass.free.isEmpty() ? -1 : sizeClass.free.pop();
+    }
+
+    private void assignPage(int page, SizeClass sizeClass) {
+        pageOwners.set(page, sizeClass.id);
+        sizeClass.pages++;
+        for (int offset = 0; offset + sizeClass.chunkSize <= pageSize; offset += sizeClass.chunkSize) {
+            sizeClass.free.push(chunk(page, offset));
+        }
+    }
+
+    /**
+     * Moves a page from the class holding the most pages to {@code target},
+     * evicting everything stored on it.
+     */
+    private void reassignPage(SizeClass target) {
+        SizeClass donor = null;
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass != target && sizeClass.pages > 0 && (donor == null || sizeClass.pages > donor.pages)) {
+                donor = sizeClass;
+            }
+        }
+        if (donor == null) {
+            return;
+        }
+        // The page of the donor's least recently used entry, or any of its pages if it holds none
+        int page = donor.entries.isEmpty() ? pageOwners.indexOf(donor.id)
+                : donor.entries.values().iterator().next().page;
+        for (Slot slot : new ArrayList<>(donor.entries.values())) {
+            if (slot.page == page) {
+                evict(slot);
+            }
+        }
+        donor.free.removeIf(chunk -> (int) (chunk >>> 32) == page);
+        donor.pages--;
+        assignPage(page, target);
+    }
+
+    private void evict(Slot slot) {
+        remove(slot.key);
+        evictions.increment();
+    }
+
+    private static long chunk(int page, int offset) {
+        return ((long) page << 32) | (offset & 0xffffffffL);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated entry");
+                }
+                read += n;
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public record Entry(TmdbEndpoint endpoint, Object value, int size, long fetchedAt) {
+    }
+
+    public record Stats(int entries, long reservedBytes, long usedBytes, double fragmentation) {
+    }
+
+    private record Slot(String key, int sizeClass, int page, int offset, int length, int rawLength,
+            TmdbEndpoint endpoint, long fetchedAt) {
+    }
+
+    private static final class SizeClass {
+
+        final int id;
+        final int chunkSize;
+        final ArrayDeque<Long> free = new ArrayDeque<>();
+        // Access order, so the first entry is the least recently used
+        final LinkedHashMap<String, Slot> entries = new LinkedHashMap<>(16, 0.75f, true);
+        int pages;
+
+        SizeClass(int id, int chunkSize) {
+            this.id = id;
+            this.chunkSize = chunkSize;
+        }
+    }
+}
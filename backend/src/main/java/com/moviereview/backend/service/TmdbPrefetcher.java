@@ -0,0 +1,172 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs speculative TMDB lookups that warm the cache for what users are likely
+ * to open next.
+ *
+ * Tasks run one at a time on a low-priority thread, at most
+ * {@code tmdb.prefetch.rate} per second. Prefetching pauses while the TMDB
+ * circuit breaker is not closed or for {@code tmdb.prefetch.throttle-backoff}
+ * after TMDB answered 429, and slows down while upstream latency is above
+ * {@code tmdb.prefetch.max-latency}. When the queue is full new tasks are
+ * dropped.
+ *
+ * The share of prefetched responses that were later requested by a user is
+ * published as tmdb.prefetch{outcome=hit} over tmdb.prefetch{outcome=loaded}.
+ */
+@Component
+public class TmdbPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbPrefetcher.class);
+
+    private final TmdbClient tmdbClient;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final long maxLatencyMillis;
+    private final long throttleBackoffMillis;
+    private final BlockingQueue<Task> queue;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> prefetched;
+    private final Thread worker;
+    private final Counter queuedTasks;
+    private final Counter droppedTasks;
+    private final Counter loadedResponses;
+    private final Counter hitResponses;
+
+    public TmdbPrefetcher(TmdbClient tmdbClient,
+            @Value("${tmdb.prefetch.enabled:false}") boolean enabled,
+            @Value("${tmdb.prefetch.rate:5}") double rate,
+            @Value("${tmdb.prefetch.queue-capacity:200}") int queueCapacity,
+            @Value("${tmdb.prefetch.max-latency:1s}") Duration maxLatency,
+            @Value("${tmdb.prefetch.throttle-backoff:30s}") Duration throttleBackoff,
+            MeterRegistry meterRegistry) {
+        this.tmdbClient = tmdbClient;
+        this.enabled = enabled;
+        this.intervalMillis = (long) (1000 / rate);
+        this.maxLatencyMillis = maxLatency.toMillis();
+        this.throttleBackoffMillis = throttleBackoff.toMillis();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        // Prefetched responses that nobody asked for within this window count as misses
+        this.prefetched = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .build();
+        this.worker = new Thread(this::run, "tmdb-prefetch");
+        this.worker.setDaemon(true);
+        this.worker.setPriority(Thread.MIN_PRIORITY);
+        this.queuedTasks = Counter.builder("tmdb.prefetch").tag("outcome", "queued").register(meterRegistry);
+        this.droppedTasks = Counter.builder("tmdb.prefetch").tag("outcome", "dropped").register(meterRegistry);
+        this.loadedResponses = Counter.builder("tmdb.prefetch").tag("outcome", "loaded").register(meterRegistry);
+        this.hitResponses = Counter.builder("tmdb.prefetch").tag("outcome", "hit").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    /**
+     * Queues {@code task} unless a task with the same key is already queued.
+     * Tasks submitted from a prefetch never queue further prefetches.
+     */
+    public void submit(String key, Runnable task) {
+        if (!enabled || isPrefetching() || !queued.add(key)) {
+            return;
+        }
+        if (queue.offer(new Task(key, task))) {
+            queuedTasks.increment();
+        } else {
+            queued.remove(key);
+            droppedTasks.increment();
+        }
+    }
+
+    /**
+     * Whether the current thread is running a prefetch task.
+     */
+    public boolean isPrefetching() {
+        return Thread.currentThread() == worker;
+    }
+
+    /**
+     * Records that a prefetch loaded the response cached under {@code key}.
+     */
+    public void loaded(String key) {
+        prefetched.put(key, Boolean.TRUE);
+        loadedResponses.increment();
+    }
+
+    /**
+     * Records that a user request was served from the cache for {@code key}.
+     */
+    public void served(String key) {
+        if (prefetched.asMap().remove(key) != null) {
+            hitResponses.increment();
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Task task = queue.take();
+                Thread.sleep(delayMillis());
+                try {
+                    task.runnable().run();
+                } catch (Exception e) {
+                    logger.debug("Prefetch {} failed: {}", task.key(), e.getMessage());
+                } finally {
+                    queued.remove(task.key());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long delayMillis() {
+        long sinceThrottled = tmdbClient.millisSinceThrottled();
+        if (sinceThrottled < throttleBackoffMillis) {
+            return throttleBackoffMillis - sinceThrottled;
+        }
+        if (!tmdbClient.isCircuitClosed()) {
+            return throttleBackoffMillis;
+        }
+        if (tmdbClient.averageLatencyMillis() > maxLatencyMillis) {
+            return intervalMillis * 4;
+        }
+        return intervalMillis;
+    }
+
+    private record Task(String key, Runnable runnable) {
+    }
+}
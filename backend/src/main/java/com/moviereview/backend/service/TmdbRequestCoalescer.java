@@ -0,0 +1,61 @@
+package com.moviereview.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent identical TMDB requests into a single upstream call.
+ *
+ * The first caller for a key runs the loader; callers arriving while it is
+ * still in flight wait on the same future and receive the same result. This
+ * sits below the response cache, so it also protects the upstream when
+ * caching is disabled or an entry has just expired.
+ */
+@Component
+public class TmdbRequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+
+    public TmdbRequestCoalescer(MeterRegistry meterRegistry) {
+        this.collapsed = Counter.builder("tmdb.requests.coalesced")
+                .description("TMDB calls that joined an identical in-flight request")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            collapsed.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too (e.g. a StackOverflowError on a bad payload), or the waiters would never return
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+}
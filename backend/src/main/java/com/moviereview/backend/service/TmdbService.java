@@ -2,16 +2,34 @@ package com.moviereview.backend.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.moviereview.backend.model.tmdb.TmdbChange;
+import com.moviereview.backend.model.tmdb.TmdbCredits;
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.moviereview.backend.model.tmdb.TmdbPerson;
+import com.moviereview.backend.model.tmdb.TmdbPersonCredits;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.moviereview.backend.model.tmdb.TmdbProjection;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 public class TmdbService {
@@ -24,106 +42,502 @@ public class TmdbService {
     @Value("${tmdb.api.url}")
     private String apiUrl;
 
-    private final RestTemplate restTemplate;
+    @Value("${tmdb.movie.max-cast:0}")
+    private int maxCast;
+
+    @Value("${tmdb.movie.max-crew:0}")
+    private int maxCrew;
+
+    @Value("${tmdb.movie.release-regions:}")
+    private List<String> releaseRegions = List.of();
+
+    @Value("${tmdb.prefetch.people:0}")
+    private int prefetchPeople;
+
+    private final TmdbClient tmdbClient;
+    private final ObjectMapper objectMapper;
+    private final TmdbCache tmdbCache;
+    private final TmdbRequestCoalescer requestCoalescer;
+    private final TmdbDiskStore diskStore;
+    private final MovieCatalog movieCatalog;
+    private final AutocompleteIndex autocompleteIndex;
+    private final TmdbPrefetcher prefetcher;
+    private final TmdbOffHeapCache offHeapCache;
+    private final TmdbAccessSketch accessSketch;
+
+    public TmdbService(TmdbClient tmdbClient, ObjectMapper objectMapper, TmdbCache tmdbCache,
+            TmdbRequestCoalescer requestCoalescer, TmdbDiskStore diskStore, MovieCatalog movieCatalog,
+            AutocompleteIndex autocompleteIndex, TmdbPrefetcher prefetcher, TmdbOffHeapCache offHeapCache,
+            TmdbAccessSketch accessSketch) {
+        this.tmdbClient = tmdbClient;
+        this.objectMapper = objectMapper;
+        this.tmdbCache = tmdbCache;
+        this.requestCoalescer = requestCoalescer;
+        this.diskStore = diskStore;
+        this.movieCatalog = movieCatalog;
+        this.autocompleteIndex = autocompleteIndex;
+        this.prefetcher = prefetcher;
+        this.offHeapCache = offHeapCache;
+        this.accessSketch = accessSketch;
+    }
+
+    private UriComponentsBuilder tmdbUri(String path) {
+        return UriComponentsBuilder.fromUriString(apiUrl + path);
+    }
+
+    private <T> T fetchTmdbData(@NonNull TmdbEndpoint endpoint, @NonNull UriComponentsBuilder uri,
+            @NonNull ParameterizedTypeReference<T> responseType, String errorPrefix) {
+        return fetchTmdbData(endpoint, uri, responseType, errorPrefix, false);
+    }
+
+    /**
+     * Looks the response up in the cache tiers and falls back to TMDB. With
+     * {@code revalidate} the cached copies are skipped and TMDB is asked for
+     * a fresh response, which then replaces them.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T fetchTmdbData(@NonNull TmdbEndpoint endpoint, @NonNull UriComponentsBuilder uri,
+            @NonNull ParameterizedTypeReference<T> responseType, String errorPrefix, boolean revalidate) {
+        // The api key is left out of the cache key so it never ends up in logs or metrics
+        String key = uri.toUriString();
+        if (!revalidate) {
+            TmdbCache.Entry cached = tmdbCache.get(key);
+            if (cached != null) {
+                if (!prefetcher.isPrefetching()) {
+                    prefetcher.served(key);
+                }
+                return (T) cached.value();
+            }
+        }
 
-    public TmdbService() {
-        this.restTemplate = new RestTemplate();
+        return requestCoalescer.execute(key,
+                () -> loadTmdbData(endpoint, key, uri, responseType, errorPrefix, revalidate));
     }
 
-    private <T> T fetchTmdbData(@NonNull String url, @NonNull ParameterizedTypeReference<T> responseType,
-            String errorPrefix) {
+    /**
+     * Reader that binds responses straight into the typed models. Fields the
+     * models do not declare are skipped by the streaming parser rather than
+     * built into a tree first.
+     */
+    private ObjectReader reader(JavaType type) {
+        TmdbProjection projection = new TmdbProjection(maxCast, maxCrew, Set.copyOf(releaseRegions));
+        return objectMapper.readerFor(type).withAttribute(TmdbProjection.ATTRIBUTE, projection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadTmdbData(TmdbEndpoint endpoint, String key, UriComponentsBuilder uri,
+            ParameterizedTypeReference<T> responseType, String errorPrefix, boolean revalidate) {
+        JavaType type = objectMapper.getTypeFactory().constructType(responseType.getType());
+        ObjectReader reader = reader(type);
+
+        // The off-heap tier holds far more than the heap cache, already parsed and projected
+        TmdbOffHeapCache.Entry offHeap = revalidate ? null : offHeapCache.get(key, type);
+        if (offHeap != null && System.currentTimeMillis() - offHeap.fetchedAt() < tmdbCache.ttl(endpoint).toMillis()) {
+            tmdbCache.put(key, endpoint, offHeap.value(), offHeap.size(), offHeap.fetchedAt());
+            return (T) offHeap.value();
+        }
+
+        TmdbDiskStore.StoredEntry stored = revalidate ? null : diskStore.get(key);
+        if (stored != null && System.currentTimeMillis() - stored.storedAt() < tmdbCache.ttl(endpoint).toMillis()) {
+            try {
+                T value = reader.readValue(stored.body());
+                tmdbCache.put(key, endpoint, value, stored.body().length, stored.storedAt());
+                offHeapCache.put(key, endpoint, value, stored.storedAt());
+                addToCatalog(value);
+                return value;
+            } catch (Exception e) {
+                logger.warn("Ignoring unreadable stored TMDB response for {}: {}", key, e.getMessage());
+            }
+        }
+
+        String url = uri.cloneBuilder().queryParam("api_key", apiKey).toUriString();
         try {
-            HttpMethod method = HttpMethod.GET;
-            HttpEntity<?> requestEntity = HttpEntity.EMPTY;
-            return restTemplate.exchange(
-                    url,
-                    method,
-                    requestEntity,
-                    responseType).getBody();
+            byte[] body = tmdbClient.get(url);
+            if (body == null) {
+                return null;
+            }
+            T value = reader.readValue(body);
+            if (isEmptyResult(value)) {
+                tmdbCache.putNegative(key, endpoint, value, body.length);
+            } else {
+                // One timestamp for both tiers, so the entity tag survives a trip through the off-heap tier
+                long fetchedAt = System.currentTimeMillis();
+                tmdbCache.put(key, endpoint, value, body.length, fetchedAt);
+                offHeapCache.put(key, endpoint, value, fetchedAt);
+                diskStore.put(key, endpoint, body);
+                addToCatalog(value);
+                if (prefetcher.isPrefetching()) {
+                    prefetcher.loaded(key);
+                }
+            }
+            return value;
+        } catch (HttpClientErrorException.NotFound e) {
+            tmdbCache.putNegative(key, endpoint, null, 0);
+            logger.error("{}{}", errorPrefix, e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error("{}{}", errorPrefix, e.getMessage());
+            return staleFallback(endpoint, key, stored, reader);
+        }
+    }
+
+    /**
+     * While TMDB is failing, an expired copy from the disk store is still
+     * better than no answer. Revalidating callers get null so they can keep
+     * whatever they already have.
+     */
+    private <T> T staleFallback(TmdbEndpoint endpoint, String key, TmdbDiskStore.StoredEntry stored,
+            ObjectReader reader) {
+        if (stored == null) {
+            return null;
+        }
+        try {
+            T value = reader.readValue(stored.body());
+            // Cache it briefly so the failing upstream is not hit again for every request
+            tmdbCache.putNegative(key, endpoint, value, stored.body().length);
+            logger.warn("Serving stale TMDB response for {} stored at {}", key, stored.storedAt());
+            return value;
+        } catch (Exception e) {
             return null;
         }
     }
 
-    private Map<String, Object> fetchTmdbMap(String url, String errorPrefix) {
-        return fetchTmdbData(url, new ParameterizedTypeReference<Map<String, Object>>() {
-        }, errorPrefix);
+    /**
+     * Feeds movies and people seen in TMDB responses into the local search
+     * catalog and the autocomplete index.
+     */
+    @SuppressWarnings("unchecked")
+    private void addToCatalog(Object value) {
+        if (value instanceof TmdbMovie movie) {
+            List<TmdbMovieSummary> movies = List.of(movie.toSummary());
+            movieCatalog.enrich(movies);
+            autocompleteIndex.addMovies(movies);
+        } else if (value instanceof TmdbPerson person) {
+            autocompleteIndex.addPeople(List.of(person.toSummary()));
+        } else if (value instanceof TmdbPage<?> page && !page.isEmpty()) {
+            if (page.results().get(0) instanceof TmdbMovieSummary) {
+                List<TmdbMovieSummary> movies = (List<TmdbMovieSummary>) page.results();
+                movieCatalog.enrich(movies);
+                autocompleteIndex.addMovies(movies);
+            } else if (page.results().get(0) instanceof TmdbPersonSummary) {
+                autocompleteIndex.addPeople((List<TmdbPersonSummary>) page.results());
+            }
+        }
     }
 
-    public List<Map<String, Object>> getTrendingMovies() {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/trending/movie/week")
-                .queryParam("api_key", apiKey)
-                .toUriString();
+    private static boolean isEmptyResult(Object value) {
+        return value instanceof TmdbPage<?> page && page.isEmpty();
+    }
+
+    public List<TmdbMovieSummary> getTrendingMovies() {
+        List<TmdbMovieSummary> results = fetchTrendingMovies(false);
+        return results != null ? results : List.of();
+    }
+
+    /**
+     * Returns the trending list from the caches or TMDB, or null if TMDB
+     * could not be reached.
+     */
+    public List<TmdbMovieSummary> findTrendingMovies() {
+        return fetchTrendingMovies(false);
+    }
+
+    /**
+     * Fetches the trending list from TMDB, bypassing the caches. Returns
+     * null if TMDB could not be reached, so callers can keep what they have.
+     */
+    public List<TmdbMovieSummary> refreshTrendingMovies() {
+        return fetchTrendingMovies(true);
+    }
 
-        TmdbResultsResponse response = fetchTmdbData(
-                url,
-                new ParameterizedTypeReference<TmdbResultsResponse>() {
+    private List<TmdbMovieSummary> fetchTrendingMovies(boolean revalidate) {
+        UriComponentsBuilder uri = tmdbUri("/trending/movie/week");
+
+        TmdbPage<TmdbMovieSummary> response = fetchTmdbData(
+                TmdbEndpoint.TRENDING,
+                uri,
+                new ParameterizedTypeReference<TmdbPage<TmdbMovieSummary>>() {
                 },
-                "Error fetching trending movies from TMDB: ");
+                "Error fetching trending movies from TMDB: ",
+                revalidate);
 
-        if (response == null || response.getResults() == null) {
-            return List.of();
+        if (response == null || response.results() == null) {
+            return null;
         }
 
-        return response.getResults();
+        return response.results();
     }
 
-    public Map<String, Object> getMovie(String id) {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/movie/" + id)
-                .queryParam("api_key", apiKey)
-                .queryParam("append_to_response", "credits,release_dates")
-                .toUriString();
+    private UriComponentsBuilder movieUri(String id) {
+        return tmdbUri("/movie/" + id).queryParam("append_to_response", "credits,release_dates");
+    }
 
-        return fetchTmdbMap(url, "Error fetching movie details from TMDB: ");
+    /**
+     * Strong entity tag for the cached movie details, or null while they are
+     * not cached. See {@link #tag}.
+     */
+    public String movieTag(String id, Object expected) {
+        return tag(movieUri(id), expected);
     }
 
-    public Map<String, Object> searchMovies(String query, int page) {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/search/movie")
-                .queryParam("api_key", apiKey)
+    public String personTag(String id, Object expected) {
+        return tag(personUri(id), expected);
+    }
+
+    public String personCreditsTag(String id, Object expected) {
+        return tag(personCreditsUri(id), expected);
+    }
+
+    /**
+     * Builds an entity tag from the cache entry's fetch time and the response
+     * projection, so no body has to be serialized or hashed. With a non-null
+     * {@code expected} the tag is only returned if the entry still holds that
+     * exact value, which keeps a concurrent refresh from tagging an older body
+     * with a newer version.
+     */
+    private String tag(UriComponentsBuilder uri, Object expected) {
+        TmdbCache.Entry entry = tmdbCache.get(uri.toUriString());
+        if (entry == null || entry.value() == null || (expected != null && entry.value() != expected)) {
+            return null;
+        }
+        int projection = Objects.hash(maxCast, maxCrew, releaseRegions);
+        return "\"" + Long.toHexString(entry.fetchedAt()) + "-" + Integer.toHexString(projection) + "\"";
+    }
+
+    public TmdbMovie getMovie(String id) {
+        return getMovie(id, true);
+    }
+
+    /**
+     * Like {@link #getMovie(String)}; with {@code prefetch} false the lead
+     * cast and director are not prefetched, for lookups (e.g. batches of
+     * cards) that are not followed by opening one of those people.
+     */
+    public TmdbMovie getMovie(String id, boolean prefetch) {
+        TmdbMovie movie = loadMovie(id);
+        if (movie != null) {
+            accessSketch.admit("movie:" + id);
+        }
+        if (prefetch) {
+            prefetchPeople(movie);
+        }
+        return movie;
+    }
+
+    private TmdbMovie loadMovie(String id) {
+        return fetchTmdbData(TmdbEndpoint.MOVIE, movieUri(id), new ParameterizedTypeReference<TmdbMovie>() {
+        }, "Error fetching movie details from TMDB: ");
+    }
+
+    /**
+     * Counts a view made for a user of what {@code key} (e.g. "movie:603",
+     * "person:6384") stands for. Callers record it before serving, so views
+     * answered by a 304 or a rendered body still count; speculative loads
+     * are not demand. The key only becomes a warm-up candidate once it has
+     * loaded, so ids that do not exist are counted but never warmed up.
+     */
+    public void recordAccess(String key) {
+        if (!prefetcher.isPrefetching()) {
+            accessSketch.record(key);
+        }
+    }
+
+    /**
+     * Loads what the access sketch key (e.g. "movie:603", "person:6384")
+     * stands for into the caches, without counting it as an access. Returns
+     * whether it could be loaded.
+     */
+    public boolean warm(String key) {
+        int separator = key.indexOf(':');
+        String id = key.substring(separator + 1);
+        return switch (key.substring(0, Math.max(separator, 0))) {
+            case "movie" -> loadMovie(id) != null;
+            case "person" -> loadPerson(id) != null && getPersonMovieCredits(id) != null;
+            default -> false;
+        };
+    }
+
+    /**
+     * Opening a movie is usually followed by opening its lead cast or its
+     * director, so their pages are loaded in the background.
+     */
+    private void prefetchPeople(TmdbMovie movie) {
+        if (movie == null || movie.credits() == null || prefetchPeople <= 0) {
+            return;
+        }
+        Set<Long> people = new LinkedHashSet<>();
+        if (movie.credits().crew() != null) {
+            for (TmdbCredits.CrewMember member : movie.credits().crew()) {
+                if ("Director".equals(member.job())) {
+                    people.add(member.id());
+                }
+            }
+        }
+        if (movie.credits().cast() != null) {
+            movie.credits().cast().stream().limit(prefetchPeople).forEach(member -> people.add(member.id()));
+        }
+        for (Long personId : people) {
+            String id = String.valueOf(personId);
+            prefetcher.submit("person:" + id, () -> {
+                getPerson(id);
+                getPersonMovieCredits(id);
+            });
+        }
+    }
+
+    /**
+     * Users paging through results most often go on to the next page.
+     */
+    private void prefetchNextPage(String type, String query, int page, TmdbPage<?> result,
+            Runnable loadNextPage) {
+        if (result != null && result.totalPages() > page) {
+            prefetcher.submit(type + ":" + query + ":" + (page + 1), loadNextPage);
+        }
+    }
+
+    /**
+     * Whether TMDB recently answered that the movie does not exist, as
+     * opposed to {@link #getMovie} returning null because TMDB failed.
+     */
+    public boolean isMovieMissing(String id) {
+        TmdbCache.Entry entry = tmdbCache.get(movieUri(id).toUriString());
+        return entry != null && entry.negative() && entry.value() == null;
+    }
+
+    public TmdbPage<TmdbMovieSummary> searchMovies(String query, int page) {
+        UriComponentsBuilder uri = tmdbUri("/search/movie")
                 .queryParam("query", query)
-                .queryParam("page", page)
-                .toUriString();
+                .queryParam("page", page);
 
-        return fetchTmdbMap(url, "Error searching movies from TMDB: ");
+        TmdbPage<TmdbMovieSummary> result = fetchTmdbData(TmdbEndpoint.SEARCH_MOVIE, uri,
+                new ParameterizedTypeReference<TmdbPage<TmdbMovieSummary>>() {
+                }, "Error searching movies from TMDB: ");
+        prefetchNextPage("search-movie", query, page, result, () -> searchMovies(query, page + 1));
+        return result;
     }
 
-    public Map<String, Object> searchPeople(String query, int page) {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/search/person")
-                .queryParam("api_key", apiKey)
+    private UriComponentsBuilder peopleSearchUri(String query, int page) {
+        return tmdbUri("/search/person")
                 .queryParam("query", query)
-                .queryParam("page", page)
-                .toUriString();
+                .queryParam("page", page);
+    }
 
-        return fetchTmdbMap(url, "Error searching people from TMDB: ");
+    public String peopleSearchTag(String query, int page, Object expected) {
+        return tag(peopleSearchUri(query, page), expected);
     }
 
-    public Map<String, Object> getPerson(String id) {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/person/" + id)
-                .queryParam("api_key", apiKey)
-                .toUriString();
+    public TmdbPage<TmdbPersonSummary> searchPeople(String query, int page) {
+        TmdbPage<TmdbPersonSummary> result = fetchTmdbData(TmdbEndpoint.SEARCH_PERSON,
+                peopleSearchUri(query, page), new ParameterizedTypeReference<TmdbPage<TmdbPersonSummary>>() {
+                }, "Error searching people from TMDB: ");
+        prefetchNextPage("search-person", query, page, result, () -> searchPeople(query, page + 1));
+        return result;
+    }
+
+    private UriComponentsBuilder personUri(String id) {
+        return tmdbUri("/person/" + id);
+    }
+
+    private UriComponentsBuilder personCreditsUri(String id) {
+        return tmdbUri("/person/" + id + "/movie_credits");
+    }
+
+    public TmdbPerson getPerson(String id) {
+        TmdbPerson person = loadPerson(id);
+        if (person != null) {
+            accessSketch.admit("person:" + id);
+        }
+        return person;
+    }
+
+    private TmdbPerson loadPerson(String id) {
+        return fetchTmdbData(TmdbEndpoint.PERSON, personUri(id), new ParameterizedTypeReference<TmdbPerson>() {
+        }, "Error fetching person details from TMDB: ");
+    }
 
-        return fetchTmdbMap(url, "Error fetching person details from TMDB: ");
+    public TmdbPersonCredits getPersonMovieCredits(String id) {
+        return fetchTmdbData(TmdbEndpoint.PERSON_CREDITS, personCreditsUri(id),
+                new ParameterizedTypeReference<TmdbPersonCredits>() {
+                }, "Error fetching person credits from TMDB: ");
     }
 
-    public Map<String, Object> getPersonMovieCredits(String id) {
-        String url = UriComponentsBuilder.fromUriString(apiUrl + "/person/" + id + "/movie_credits")
+    /**
+     * One page of the ids TMDB reports as changed between {@code start} and
+     * {@code end} (inclusive, at most 14 days apart). {@code type} is "movie"
+     * or "person". Always asks TMDB and is never cached; failures are thrown
+     * so the caller can retry the same range.
+     */
+    public TmdbPage<TmdbChange> getChanges(String type, LocalDate start, LocalDate end, int page)
+            throws IOException {
+        String url = tmdbUri("/" + type + "/changes")
+                .queryParam("start_date", start)
+                .queryParam("end_date", end)
+                .queryParam("page", page)
                 .queryParam("api_key", apiKey)
                 .toUriString();
+        byte[] body = tmdbClient.get(url);
+        if (body == null) {
+            throw new IOException("TMDB returned no " + type + " changes");
+        }
+        return objectMapper.readValue(body, new TypeReference<TmdbPage<TmdbChange>>() {
+        });
+    }
 
-        return fetchTmdbMap(url, "Error fetching person credits from TMDB: ");
+    /**
+     * Drops the cached details of a movie TMDB reported as changed from every
+     * cache tier, unless they were fetched at or after {@code changedBefore}
+     * and so already include the change. Movies still in the heap cache are
+     * in demand and are loaded again right away.
+     */
+    public ChangeOutcome applyMovieChange(String id, long changedBefore) {
+        return applyChange(movieUri(id).toUriString(), changedBefore, () -> loadMovie(id));
     }
 
-    public static class TmdbResultsResponse {
-        private List<Map<String, Object>> results;
+    /**
+     * Like {@link #applyMovieChange}, for a person's details and movie
+     * credits.
+     */
+    public ChangeOutcome applyPersonChange(String id, long changedBefore) {
+        ChangeOutcome person = applyChange(personUri(id).toUriString(), changedBefore, () -> loadPerson(id));
+        ChangeOutcome credits = applyChange(personCreditsUri(id).toUriString(), changedBefore,
+                () -> getPersonMovieCredits(id));
+        return person.compareTo(credits) >= 0 ? person : credits;
+    }
 
-        public List<Map<String, Object>> getResults() {
-            return results;
+    private ChangeOutcome applyChange(String key, long changedBefore, Supplier<Object> reload) {
+        TmdbCache.Entry cached = tmdbCache.get(key);
+        // All tiers are written from the same fetch, so the highest one holding the key tells when that was
+        long fetchedAt = cached != null ? cached.fetchedAt() : offHeapCache.fetchedAt(key);
+        if (fetchedAt == 0) {
+            fetchedAt = diskStore.storedAt(key);
         }
-
-        @SuppressWarnings("unused")
-        public void setResults(List<Map<String, Object>> results) {
-            this.results = results;
+        if (fetchedAt == 0) {
+            return ChangeOutcome.UNCACHED;
+        }
+        if (fetchedAt >= changedBefore) {
+            return ChangeOutcome.CURRENT;
         }
+        tmdbCache.invalidate(key);
+        offHeapCache.invalidate(key);
+        diskStore.remove(key);
+        // Negative entries are not worth reloading: the next lookup asks TMDB anyway
+        if (cached != null && !cached.negative() && reload.get() != null) {
+            return ChangeOutcome.REFRESHED;
+        }
+        return ChangeOutcome.EVICTED;
+    }
+
+    /**
+     * What applying a TMDB change did to the cache, from least to most work.
+     */
+    public enum ChangeOutcome {
+        /** Nothing was cached for it. */
+        UNCACHED,
+        /** The cached copy was fetched after the change. */
+        CURRENT,
+        /** The cached copy was dropped. */
+        EVICTED,
+        /** The cached copy was dropped and loaded again. */
+        REFRESHED
     }
 }
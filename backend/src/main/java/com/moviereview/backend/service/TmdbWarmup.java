@@ -0,0 +1,138 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Preloads the most popular movies and people, according to the
+ * {@link TmdbAccessSketch} restored from the previous run, plus the
+ * trending list, before the application starts taking traffic.
+ *
+ * Runs as an application runner, and Spring Boot only reports the readiness
+ * state as accepting traffic once all runners are done, so a readiness
+ * probe keeps new instances out of rotation until they are warm. At most
+ * {@code tmdb.warmup.parallelism} lookups run at a time and the whole phase
+ * is cut off after {@code tmdb.warmup.timeout}.
+ *
+ * Duration and coverage are logged and published as tmdb.warmup.* gauges:
+ * the number of entries loaded and failed, and the share of recorded
+ * accesses the warmed keys account for, to tune the top-N sizes against
+ * startup time.
+ */
+@Component
+public class TmdbWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbWarmup.class);
+
+    private final TmdbService tmdbService;
+    private final TmdbAccessSketch accessSketch;
+    private final TrendingMoviesService trendingMoviesService;
+    private final int movies;
+    private final int people;
+    private final int parallelism;
+    private final Duration timeout;
+
+    private volatile long durationMillis;
+    private volatile double coverage;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public TmdbWarmup(TmdbService tmdbService, TmdbAccessSketch accessSketch,
+            TrendingMoviesService trendingMoviesService,
+            @Value("${tmdb.warmup.movies:200}") int movies,
+            @Value("${tmdb.warmup.people:100}") int people,
+            @Value("${tmdb.warmup.parallelism:4}") int parallelism,
+            @Value("${tmdb.warmup.timeout:60s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.tmdbService = tmdbService;
+        this.accessSketch = accessSketch;
+        this.trendingMoviesService = trendingMoviesService;
+        this.movies = movies;
+        this.people = people;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        Gauge.builder("tmdb.warmup.duration", this, warmup -> warmup.durationMillis / 1000.0)
+                .baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("tmdb.warmup.coverage", this, warmup -> warmup.coverage)
+                .description("Share of recorded TMDB accesses covered by the warmed keys").register(meterRegistry);
+        Gauge.builder("tmdb.warmup.entries", loaded, AtomicInteger::get).tag("outcome", "loaded")
+                .register(meterRegistry);
+        Gauge.builder("tmdb.warmup.entries", failed, AtomicInteger::get).tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!accessSketch.isEnabled()) {
+            return;
+        }
+        warm();
+    }
+
+    void warm() throws InterruptedException {
+        long start = System.nanoTime();
+        List<String> keys = new ArrayList<>(accessSketch.top("movie:", movies));
+        keys.addAll(accessSketch.top("person:", people));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            executor.execute(() -> attempt(() -> trendingMoviesService.getSnapshot() != null));
+            for (String key : keys) {
+                executor.execute(() -> attempt(() -> tmdbService.warm(key)));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("TMDB warm-up cut off after {}", timeout);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        coverage = accessSketch.coverage(keys);
+        logger.info("TMDB warm-up loaded {} of {} entries ({} failed) in {} ms, covering {}% of recorded accesses",
+                loaded.get(), keys.size() + 1, failed.get(), durationMillis, Math.round(coverage * 1000) / 10.0);
+    }
+
+    private void attempt(BooleanSupplier load) {
+        boolean success;
+        try {
+            success = load.getAsBoolean();
+        } catch (RuntimeException e) {
+            success = false;
+        }
+        (success ? loaded : failed).incrementAndGet();
+    }
+
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    public double coverage() {
+        return coverage;
+    }
+
+    public int loaded() {
+        return loaded.get();
+    }
+}
@@ -0,0 +1,200 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the trending movies list as a pre-serialized, pre-compressed
+ * snapshot in memory.
+ *
+ * A background task refreshes the snapshot from TMDB on a fixed cadence.
+ * Once the first snapshot exists requests never wait on TMDB: they keep
+ * getting the previous snapshot while a refresh is in flight or failing.
+ * Failed refreshes are retried with a jittered exponential backoff.
+ *
+ * A failed fetch never becomes the snapshot: until one succeeds there is
+ * no snapshot, and callers report the list as unavailable rather than
+ * empty. Requests in the meantime start a fetch on the refresh thread at
+ * most once per {@code tmdb.trending.retry-min-delay}; concurrent requests
+ * join that one fetch and wait for it at most
+ * {@code tmdb.trending.first-fetch-wait}, so a slow TMDB costs each of
+ * them a bounded wait and no request thread holds a lock across the call.
+ */
+@Service
+public class TrendingMoviesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingMoviesService.class);
+
+    private final TmdbService tmdbService;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+    private final Duration retryMinDelay;
+    private final Duration firstFetchWait;
+    private final ScheduledExecutorService scheduler;
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+
+    private volatile Snapshot snapshot;
+    private int consecutiveFailures;
+    private long lastFailedFetch;
+    private CompletableFuture<Snapshot> firstFetch;
+
+    public TrendingMoviesService(TmdbService tmdbService, ObjectMapper objectMapper,
+            @Value("${tmdb.trending.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${tmdb.trending.retry-min-delay:5s}") Duration retryMinDelay,
+            @Value("${tmdb.trending.first-fetch-wait:2s}") Duration firstFetchWait,
+            MeterRegistry meterRegistry) {
+        this.tmdbService = tmdbService;
+        this.objectMapper = objectMapper;
+        this.refreshInterval = refreshInterval;
+        this.retryMinDelay = retryMinDelay;
+        this.firstFetchWait = firstFetchWait;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshSuccesses = Counter.builder("tmdb.trending.refresh").tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("tmdb.trending.refresh").tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("tmdb.trending.age", this, service -> {
+            Snapshot current = service.snapshot;
+            return current == null ? 0 : (System.currentTimeMillis() - current.refreshedAt()) / 1000.0;
+        }).baseUnit("seconds").description("Age of the trending movies snapshot").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.execute(this::refresh);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns the current snapshot, or null if the trending list could not
+     * be loaded yet. Only calls before the first snapshot exists wait, for
+     * a shared fetch and at most {@code tmdb.trending.first-fetch-wait}.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        CompletableFuture<Snapshot> fetch = firstFetch();
+        if (fetch == null) {
+            return snapshot;
+        }
+        try {
+            return fetch.get(firstFetchWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return snapshot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return snapshot;
+        }
+    }
+
+    /**
+     * The fetch in flight, a new one if none is and the last failure is
+     * long enough ago, or null.
+     */
+    private synchronized CompletableFuture<Snapshot> firstFetch() {
+        if (firstFetch != null && !firstFetch.isDone()) {
+            return firstFetch;
+        }
+        if (snapshot != null || System.currentTimeMillis() - lastFailedFetch < retryMinDelay.toMillis()) {
+            return null;
+        }
+        try {
+            firstFetch = CompletableFuture.supplyAsync(this::fetchFirst, scheduler);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return null;
+        }
+        return firstFetch;
+    }
+
+    private Snapshot fetchFirst() {
+        // Runs on the refresh thread, which may have loaded one meanwhile
+        if (snapshot == null) {
+            List<TmdbMovieSummary> movies = tmdbService.findTrendingMovies();
+            if (movies != null) {
+                install(movies);
+            } else {
+                synchronized (this) {
+                    lastFailedFetch = System.currentTimeMillis();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void refresh() {
+        long delay;
+        try {
+            List<TmdbMovieSummary> movies = tmdbService.refreshTrendingMovies();
+            if (movies == null) {
+                throw new IllegalStateException("TMDB returned no trending movies");
+            }
+            install(movies);
+            consecutiveFailures = 0;
+            refreshSuccesses.increment();
+            delay = refreshInterval.toMillis();
+        } catch (Exception e) {
+            consecutiveFailures++;
+            refreshFailures.increment();
+            delay = retryDelay(consecutiveFailures);
+            logger.warn("Trending movies refresh failed ({} in a row), retrying in {} ms: {}",
+                    consecutiveFailures, delay, e.getMessage());
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    long retryDelay(int failures) {
+        long backoff = retryMinDelay.toMillis() << Math.min(failures - 1, 16);
+        long capped = Math.min(backoff, refreshInterval.toMillis());
+        // Spread retries between 50% and 150% of the backoff
+        return (long) (capped * ThreadLocalRandom.current().nextDouble(0.5, 1.5));
+    }
+
+    private void install(List<TmdbMovieSummary> movies) {
+        try {
+            snapshot = new Snapshot(movies, EncodedBody.of(objectMapper.writeValueAsBytes(movies)),
+                    System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize trending movies", e);
+        }
+    }
+
+    public record Snapshot(List<TmdbMovieSummary> movies, EncodedBody body, long refreshedAt) {
+    }
+}
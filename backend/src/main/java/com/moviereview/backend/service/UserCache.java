@@ -0,0 +1,142 @@
+package com.moviereview.backend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Short-lived copies of users' current profile fields, for endpoints that
+ * need more than the identity carried by the JWT.
+ *
+ * Entries live for {@code auth.user-cache.ttl} (0 disables the cache) and
+ * are dropped by {@link ProfileChangeListener} as soon as the user's
+ * profile or credentials change. Users deleted while their tokens are still
+ * valid are remembered for {@code auth.removed-users.ttl}, the lifetime of a
+ * token, so their requests are no longer authenticated. Hit/miss counters
+ * are published under the "users" cache name.
+ *
+ * It also maps emails to user ids for principals that only know the email
+ * (up to {@code auth.user-ids.size} entries, 0 disables it). An id never
+ * changes, so these entries only go when the user changes or is removed,
+ * published as the "user-ids" cache.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, CachedUser> cache;
+    private final Cache<Long, Boolean> removed;
+    private final Cache<String, Long> ids;
+
+    // Lazy: the cache is needed by the JPA entity listener before the repositories exist
+    public UserCache(@Lazy UserRepository userRepository,
+            @Value("${auth.user-cache.ttl:0s}") Duration ttl,
+            @Value("${auth.user-cache.size:10000}") long size,
+            @Value("${auth.removed-users.ttl:1d}") Duration removedTtl,
+            @Value("${auth.user-ids.size:0}") long idsSize,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        if (!ttl.isZero()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(size)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+        } else {
+            this.cache = null;
+        }
+        this.removed = Caffeine.newBuilder().expireAfterWrite(removedTtl).build();
+        if (idsSize > 0) {
+            this.ids = Caffeine.newBuilder().maximumSize(idsSize).recordStats().build();
+            CaffeineCacheMetrics.monitor(meterRegistry, ids, "user-ids");
+        } else {
+            this.ids = null;
+        }
+    }
+
+    /**
+     * The id of the user with this email, or null if there is none.
+     */
+    public Long idByEmail(String email) {
+        if (ids == null) {
+            return userRepository.findByEmail(email).map(User::getId).orElse(null);
+        }
+        return ids.get(email, key -> userRepository.findByEmail(key).map(User::getId).orElse(null));
+    }
+
+    /**
+     * The user's profile as of at most {@code auth.user-cache.ttl} ago, or
+     * empty if there is no such user.
+     */
+    public Optional<CachedUser> get(Long id) {
+        if (cache == null) {
+            return userRepository.findById(id).map(CachedUser::of);
+        }
+        // Missing users are not cached, a null mapping is not stored
+        return Optional.ofNullable(cache.get(id,
+                key -> userRepository.findById(key).map(CachedUser::of).orElse(null)));
+    }
+
+    /**
+     * Forgets the cached copy of a changed user. Inside a transaction this
+     * happens again after the commit, so a concurrent read cannot put back
+     * the old data.
+     */
+    public void invalidate(Long id) {
+        if (id == null || (cache == null && ids == null)) {
+            return;
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+        if (ids != null) {
+            // The old email is not known here; a scan is fine for how rarely accounts change
+            ids.asMap().values().removeIf(id::equals);
+        }
+    }
+
+    public void removed(Long id) {
+        if (id != null) {
+            removed.put(id, Boolean.TRUE);
+            invalidate(id);
+        }
+    }
+
+    public boolean isRemoved(Long id) {
+        return removed.getIfPresent(id) != null;
+    }
+
+    public record CachedUser(Long id, String email, String name, String avatarUrl, String bio, String gender) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getName(), user.getAvatarUrl(), user.getBio(),
+                    user.getGender());
+        }
+    }
+}
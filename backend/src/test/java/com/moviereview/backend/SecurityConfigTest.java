@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,9 +27,23 @@ public class SecurityConfigTest {
 
     @Test
     public void trendingMoviesEndpoint_shouldBePublic() throws Exception {
-        when(tmdbService.getTrendingMovies()).thenReturn(Collections.emptyList());
+        when(tmdbService.findTrendingMovies()).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/movies/trending"))
                .andExpect(status().isOk());
     }
+
+    @Test
+    public void readinessProbe_shouldNotRequireToken() throws Exception {
+        when(tmdbService.findTrendingMovies()).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    public void metricsEndpoint_shouldNotBeServedOnApplicationPort() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("someone")))
+               .andExpect(status().isForbidden());
+    }
 }
@@ -0,0 +1,80 @@
+package com.moviereview.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MockTmdbControllerTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private MockTmdbController controller;
+
+        @AfterEach
+        public void tearDown() {
+                controller.stop();
+        }
+
+        private MockTmdbController create(String latency, double tailProbability, double errorRate, int rateLimit)
+                        throws Exception {
+                controller = new MockTmdbController(latency, Duration.ofMillis(20), 0.5, tailProbability,
+                                Duration.ofMillis(300), errorRate, rateLimit);
+                return controller;
+        }
+
+        @Test
+        public void testGetMovie_FixtureBindsWithRequestedId() throws Exception {
+                create("fixed", 0, 0, 0);
+
+                long started = System.nanoTime();
+                ResponseEntity<String> response = controller.getMovie("603").get(5, TimeUnit.SECONDS);
+
+                assertEquals(200, response.getStatusCode().value());
+                assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(20));
+                TmdbMovie movie = objectMapper.readValue(response.getBody(), TmdbMovie.class);
+                assertEquals(603, movie.id());
+                assertEquals("Director", movie.credits().crew().get(0).job());
+        }
+
+        @Test
+        public void testSearchMovies_PageIsEchoed() throws Exception {
+                create("fixed", 0, 0, 0);
+
+                TmdbPage<TmdbMovieSummary> page = objectMapper.readValue(
+                                controller.searchMovies(3).get(5, TimeUnit.SECONDS).getBody(),
+                                objectMapper.getTypeFactory().constructParametricType(TmdbPage.class,
+                                                TmdbMovieSummary.class));
+
+                assertEquals(3, page.page());
+                assertEquals(3, page.results().size());
+        }
+
+        @Test
+        public void testRespond_RequestsOverRateLimitGet429() throws Exception {
+                create("fixed", 0, 0, 2);
+
+                controller.getPerson("1");
+                controller.getPerson("2");
+                ResponseEntity<String> rejected = controller.getPerson("3").get(5, TimeUnit.SECONDS);
+
+                assertEquals(429, rejected.getStatusCode().value());
+                assertEquals("1", rejected.getHeaders().getFirst("Retry-After"));
+        }
+
+        @Test
+        public void testRespond_ErrorRateAndLongTailAreInjected() throws Exception {
+                create("long-tail", 1.0, 1.0, 0);
+
+                assertEquals(300, controller.delayMillis());
+                assertEquals(503, controller.getMovie("603").get(5, TimeUnit.SECONDS).getStatusCode().value());
+        }
+}
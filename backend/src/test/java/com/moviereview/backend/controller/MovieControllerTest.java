@@ -0,0 +1,148 @@
+package com.moviereview.backend.controller;
+
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.service.ResponseBodyCache;
+import com.moviereview.backend.service.TmdbService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MovieControllerTest {
+
+        private TmdbService tmdbService;
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        public void setUp() {
+                tmdbService = Mockito.mock(TmdbService.class);
+                ResponseBodyCache responseBodyCache = new ResponseBodyCache(new ObjectMapper(),
+                                DataSize.ofMegabytes(1), Duration.ofMinutes(30), new SimpleMeterRegistry());
+                MovieController controller = new MovieController(tmdbService, null, null, null, null,
+                                responseBodyCache, null, null, null);
+                mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        }
+
+        @Test
+        public void testGetMovie_ReturnsETagAndCacheControl() throws Exception {
+                TmdbMovie movie = new TmdbMovie(603L, "The Matrix", null, null, null, null, null, null, null, null,
+                                null, null, null, null, null, null, null, null);
+                Mockito.when(tmdbService.getMovie("603")).thenReturn(movie);
+                Mockito.when(tmdbService.movieTag("603", movie)).thenReturn("\"abc-1\"");
+
+                mockMvc.perform(get("/api/movies/603"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"abc-1\""))
+                                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                                .andExpect(jsonPath("$.title").value("The Matrix"));
+        }
+
+        @Test
+        public void testGetMovie_MatchingIfNoneMatchSkipsLookup() throws Exception {
+                Mockito.when(tmdbService.movieTag("603", null)).thenReturn("\"abc-1\"");
+
+                mockMvc.perform(get("/api/movies/603").header("If-None-Match", "\"abc-1\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", "\"abc-1\""))
+                                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                                .andExpect(header().string("Vary", "Accept-Encoding"))
+                                .andExpect(content().string(""));
+
+                Mockito.verify(tmdbService, Mockito.never()).getMovie("603");
+                // Still a view for the access sketch
+                Mockito.verify(tmdbService).recordAccess("movie:603");
+        }
+
+        @Test
+        public void testGetMovie_GzipBodyIsRenderedOncePerVersion() throws Exception {
+                TmdbMovie movie = new TmdbMovie(603L, "The Matrix", null, null, null, null, null, null, null, null,
+                                null, null, null, null, null, null, null, null);
+                Mockito.when(tmdbService.getMovie("603")).thenReturn(movie);
+                Mockito.when(tmdbService.movieTag("603", movie)).thenReturn("\"abc-1\"");
+                Mockito.when(tmdbService.movieTag("603", null)).thenReturn("\"abc-1\"");
+
+                mockMvc.perform(get("/api/movies/603")).andExpect(status().isOk());
+                byte[] gzip = mockMvc.perform(get("/api/movies/603").header("Accept-Encoding", "br, gzip"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Encoding", "gzip"))
+                                .andExpect(header().string("Vary", "Accept-Encoding"))
+                                .andReturn().getResponse().getContentAsByteArray();
+
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                        assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("The Matrix"));
+                }
+                // The second request was served from the rendered body without loading the movie again
+                Mockito.verify(tmdbService, Mockito.times(1)).getMovie("603");
+                Mockito.verify(tmdbService, Mockito.times(2)).recordAccess("movie:603");
+        }
+
+        @Test
+        public void testSearchPeople_RepeatSearchesReuseRenderedBody() throws Exception {
+                TmdbPage<TmdbPersonSummary> page = new TmdbPage<>(1,
+                                List.of(new TmdbPersonSummary(6384L, "Keanu Reeves", null, "Acting", 50.0, null)), 1, 1);
+                Mockito.when(tmdbService.searchPeople("keanu", 1)).thenReturn(page);
+                Mockito.when(tmdbService.peopleSearchTag("keanu", 1, page)).thenReturn("\"def-2\"");
+                Mockito.when(tmdbService.peopleSearchTag("keanu", 1, null)).thenReturn(null, "\"def-2\"");
+
+                mockMvc.perform(get("/api/movies/people/search/paginated").param("query", "keanu"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"def-2\""))
+                                .andExpect(jsonPath("$.total_pages").value(1))
+                                .andExpect(jsonPath("$.results[0].name").value("Keanu Reeves"));
+                mockMvc.perform(get("/api/movies/people/search/paginated").param("query", "keanu"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.results[0].name").value("Keanu Reeves"));
+                mockMvc.perform(get("/api/movies/people/search").param("query", "keanu"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].id").value(6384));
+
+                // Loaded for the first paginated request and for the first results-only one
+                Mockito.verify(tmdbService, Mockito.times(2)).searchPeople("keanu", 1);
+        }
+
+        @Test
+        public void testGetMovie_CardFieldsetIsPrunedAndTaggedSeparately() throws Exception {
+                TmdbMovie movie = new TmdbMovie(603L, "The Matrix", "The Matrix", "Free your mind", "A hacker...",
+                                "1999-03-31", 136, 8.2, 25000, "/matrix.jpg", "/backdrop.jpg", "en", List.of(), null,
+                                null, null, null, null);
+                Mockito.when(tmdbService.getMovie("603")).thenReturn(movie);
+                Mockito.when(tmdbService.movieTag("603", movie)).thenReturn("\"abc-1\"");
+                Mockito.when(tmdbService.movieTag("603", null)).thenReturn(null, "\"abc-1\"");
+
+                String cardTag = mockMvc.perform(get("/api/movies/603").param("fields", "card"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", aMapWithSize(5)))
+                                .andExpect(jsonPath("$.poster_path").value("/matrix.jpg"))
+                                .andExpect(jsonPath("$.vote_average").value(8.2))
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotEquals("\"abc-1\"", cardTag);
+
+                // Same selection in another order: same representation, answered from its tag
+                mockMvc.perform(get("/api/movies/603").param("fields", "release_date,id,card")
+                                .header("If-None-Match", cardTag))
+                                .andExpect(status().isNotModified());
+                Mockito.verify(tmdbService, Mockito.times(1)).getMovie("603");
+        }
+}
@@ -3,10 +3,13 @@ package com.moviereview.backend.controller;
 import com.moviereview.backend.model.Review;
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.ReviewLikeRepository;
 import com.moviereview.backend.repository.ReviewRepository;
 import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.service.AutocompleteIndex;
 import com.moviereview.backend.service.CustomUserDetailsService;
+import com.moviereview.backend.service.UserCache;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +21,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
-import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -40,6 +42,15 @@ public class ReviewControllerTest {
         @MockitoBean
         private LikeRepository likeRepository;
 
+        @MockitoBean
+        private ReviewLikeRepository reviewLikeRepository;
+
+        @MockitoBean
+        private UserCache userCache;
+
+        @MockitoBean
+        private AutocompleteIndex autocompleteIndex;
+
         @MockitoBean
         private JwtUtils jwtUtils;
 
@@ -52,7 +63,7 @@ public class ReviewControllerTest {
                 user.setId(5L);
                 user.setEmail("test@example.com");
 
-                Mockito.when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                Mockito.when(userCache.idByEmail("test@example.com")).thenReturn(5L);
 
                 Review review = new Review();
                 review.setId(1L);
@@ -79,11 +90,7 @@ public class ReviewControllerTest {
 
         @Test
         public void testCheckReviewStatus_NoReview() throws Exception {
-                User user = new User();
-                user.setId(5L);
-                user.setEmail("test@example.com");
-
-                Mockito.when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                Mockito.when(userCache.idByEmail("test@example.com")).thenReturn(5L);
 
                 Mockito.when(reviewRepository.findAllByUserIdAndMovieId(5L, "27205"))
                                 .thenReturn(Collections.emptyList());
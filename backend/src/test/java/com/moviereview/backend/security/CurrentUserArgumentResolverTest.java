@@ -0,0 +1,89 @@
+package com.moviereview.backend.security;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.service.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CurrentUserArgumentResolverTest {
+
+        private UserRepository userRepository;
+        private UserCache userCache;
+        private CurrentUserArgumentResolver resolver;
+
+        @BeforeEach
+        public void setUp() {
+                userRepository = Mockito.mock(UserRepository.class);
+                userCache = Mockito.mock(UserCache.class);
+                resolver = new CurrentUserArgumentResolver(userRepository, userCache);
+        }
+
+        @SuppressWarnings("unused")
+        private void handler(@CurrentUser Long id, @CurrentUser(reference = true) User reference,
+                        @CurrentUser User user, @CurrentUser(required = false) Long optionalId) {
+        }
+
+        private static MethodParameter parameter(int index) throws NoSuchMethodException {
+                Method method = CurrentUserArgumentResolverTest.class.getDeclaredMethod("handler", Long.class,
+                                User.class, User.class, Long.class);
+                return new MethodParameter(method, index);
+        }
+
+        private static ServletWebRequest request(Object principal) {
+                MockHttpServletRequest request = new MockHttpServletRequest();
+                request.setUserPrincipal(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+                return new ServletWebRequest(request);
+        }
+
+        @Test
+        public void testResolve_JwtPrincipalNeedsNoLookup() throws Exception {
+                User reference = new User();
+                Mockito.when(userRepository.getReferenceById(5L)).thenReturn(reference);
+                ServletWebRequest request = request(new JwtUser(5L, "test@example.com", List.of()));
+
+                assertEquals(5L, resolver.resolveArgument(parameter(0), null, request, null));
+                assertSame(reference, resolver.resolveArgument(parameter(1), null, request, null));
+                Mockito.verify(userRepository, Mockito.never()).findById(Mockito.any());
+                Mockito.verifyNoInteractions(userCache);
+        }
+
+        @Test
+        public void testResolve_UserIsLoadedOncePerRequest() throws Exception {
+                User user = new User();
+                user.setId(5L);
+                Mockito.when(userCache.idByEmail("test@example.com")).thenReturn(5L);
+                Mockito.when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+                ServletWebRequest request = request("test@example.com");
+
+                assertSame(user, resolver.resolveArgument(parameter(2), null, request, null));
+                assertSame(user, resolver.resolveArgument(parameter(2), null, request, null));
+                assertEquals(5L, resolver.resolveArgument(parameter(0), null, request, null));
+                Mockito.verify(userCache).idByEmail("test@example.com");
+                Mockito.verify(userRepository).findById(5L);
+        }
+
+        @Test
+        public void testResolve_MissingUserIsRejectedOnlyWhenRequired() throws Exception {
+                ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+
+                assertNull(resolver.resolveArgument(parameter(3), null, request, null));
+                assertThrows(ResponseStatusException.class,
+                                () -> resolver.resolveArgument(parameter(0), null, request, null));
+        }
+}
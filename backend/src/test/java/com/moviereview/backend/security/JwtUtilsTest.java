@@ -0,0 +1,72 @@
+package com.moviereview.backend.security;
+
+import com.moviereview.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtUtilsTest {
+
+        @Test
+        public void testVerify_RepeatedTokenIsServedFromCache() {
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                JwtUtils jwtUtils = new JwtUtils(100, meterRegistry);
+                String token = jwtUtils.generateToken("test@example.com");
+
+                Claims first = jwtUtils.verify(token);
+                Claims second = jwtUtils.verify(token);
+
+                assertEquals("test@example.com", first.getSubject());
+                assertSame(first, second);
+                assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit")
+                                .functionCounter().count());
+                assertTrue(jwtUtils.isTokenValid(token, "test@example.com"));
+                assertFalse(jwtUtils.isTokenValid(token, "other@example.com"));
+        }
+
+        @Test
+        public void testVerify_TamperedTokenIsRejectedAfterOriginalWasCached() {
+                JwtUtils jwtUtils = new JwtUtils(100, new SimpleMeterRegistry());
+                String token = jwtUtils.generateToken("test@example.com");
+                jwtUtils.verify(token);
+
+                String[] parts = token.split("\\.");
+                String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+                assertThrows(JwtException.class, () -> jwtUtils.verify(forged));
+        }
+
+        @Test
+        public void testVerify_WithoutCacheParsesEveryTime() {
+                JwtUtils jwtUtils = new JwtUtils(0, new SimpleMeterRegistry());
+                String token = jwtUtils.generateToken("test@example.com");
+
+                assertNotSame(jwtUtils.verify(token), jwtUtils.verify(token));
+                assertEquals("test@example.com", jwtUtils.extractUsername(token));
+        }
+
+        @Test
+        public void testToPrincipal_UserTokenCarriesIdentity() {
+                JwtUtils jwtUtils = new JwtUtils(100, new SimpleMeterRegistry());
+                User user = new User();
+                user.setId(5L);
+                user.setEmail("test@example.com");
+
+                JwtUser principal = jwtUtils.toPrincipal(jwtUtils.verify(jwtUtils.generateToken(user)));
+
+                assertEquals(5L, principal.getId());
+                assertEquals("test@example.com", principal.getUsername());
+                assertTrue(principal.getAuthorities().isEmpty());
+                // Tokens issued with only the email still need a lookup
+                assertNull(jwtUtils.toPrincipal(jwtUtils.verify(jwtUtils.generateToken("test@example.com"))));
+        }
+}
@@ -0,0 +1,86 @@
+package com.moviereview.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHasherTest {
+
+        @Test
+        public void testSubmit_FullQueueIsRejectedImmediately() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                PasswordEncoder encoder = Mockito.mock(PasswordEncoder.class);
+                Mockito.when(encoder.encode("secret")).thenAnswer(invocation -> {
+                        release.await();
+                        return "hash";
+                });
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                PasswordHasher hasher = new PasswordHasher(encoder, 1, 1, meterRegistry);
+                try {
+                        CompletableFuture<String> running = hasher.encode("secret");
+                        CompletableFuture<String> queued = hasher.encode("secret");
+
+                        assertThrows(RejectedExecutionException.class, () -> hasher.encode("secret"));
+                        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+                        release.countDown();
+                        assertEquals("hash", running.get());
+                        assertEquals("hash", queued.get());
+                        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer()
+                                        .count());
+                } finally {
+                        hasher.stop();
+                }
+        }
+
+        @Test
+        public void testNeedsRehash_OnlyHashesBelowConfiguredStrength() throws Exception {
+                String weak = new BCryptPasswordEncoder(4).encode("secret");
+                PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), 1, 4,
+                                new SimpleMeterRegistry());
+                try {
+                        String current = hasher.encode("secret").get();
+
+                        assertTrue(hasher.needsRehash(weak));
+                        assertFalse(hasher.needsRehash(current));
+                        assertTrue(hasher.matches("secret", weak).get());
+                        assertFalse(hasher.matches("wrong", current).get());
+                        // Accounts without a password (OAuth) never match
+                        assertFalse(hasher.matches("secret", null).get());
+                } finally {
+                        hasher.stop();
+                }
+        }
+
+        @Test
+        public void testEncode_DependentWorkDoesNotRunOnHashingThread() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                PasswordEncoder encoder = Mockito.mock(PasswordEncoder.class);
+                Mockito.when(encoder.encode("secret")).thenAnswer(invocation -> {
+                        release.await();
+                        return "hash";
+                });
+                PasswordHasher hasher = new PasswordHasher(encoder, 1, 1, new SimpleMeterRegistry());
+                try {
+                        // Chained while the hash is still running, like a controller does
+                        CompletableFuture<String> thread = hasher.encode("secret")
+                                        .thenApply(hash -> Thread.currentThread().getName());
+                        release.countDown();
+
+                        assertEquals("password-hasher-completion", thread.get());
+                } finally {
+                        hasher.stop();
+                }
+        }
+}
@@ -0,0 +1,119 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AutocompleteIndexTest {
+
+        private AutocompleteIndex index;
+
+        @BeforeEach
+        public void setUp() throws Exception {
+                index = new AutocompleteIndex(null, null, null, null, 1000);
+                index.addMovies(List.of(
+                                movie(155, "The Dark Knight", "2008-07-16", 90.0),
+                                movie(49026, "The Dark Knight Rises", "2012-07-16", 60.0),
+                                movie(9999, "Dark Water", "2005-07-08", 5.0),
+                                movie(129, "Spirited Away", "2001-07-20", 70.0),
+                                movie(10681, "Amélie", "2001-04-25", 30.0)));
+                index.addPeople(List.of(new TmdbPersonSummary(525, "Christopher Nolan", "/n.jpg", "Directing",
+                                20.0, null)));
+                index.awaitUpdates();
+        }
+
+        @AfterEach
+        public void tearDown() {
+                index.stop();
+        }
+
+        private static TmdbMovieSummary movie(long id, String title, String releaseDate, Double popularity) {
+                return new TmdbMovieSummary(id, title, title, null, null, releaseDate, "/" + id + ".jpg", null, 8.0,
+                                1000, popularity);
+        }
+
+        private static List<Long> ids(List<AutocompleteIndex.Suggestion> suggestions) {
+                return suggestions.stream().map(AutocompleteIndex.Suggestion::id).toList();
+        }
+
+        @Test
+        public void testSuggest_PrefixOfAnyWordOrderedByPopularity() {
+                assertEquals(List.of(155L, 49026L, 9999L), ids(index.suggest("dar", AutocompleteIndex.MOVIE, 10)));
+                assertEquals(List.of(155L, 49026L), ids(index.suggest("knight", AutocompleteIndex.MOVIE, 10)));
+                assertEquals(49026L, index.suggest("dark knight r", AutocompleteIndex.MOVIE, 10).get(0).id());
+                assertEquals(List.of(155L), ids(index.suggest("dar", AutocompleteIndex.MOVIE, 1)));
+        }
+
+        @Test
+        public void testSuggest_ToleratesTyposAndAccents() {
+                assertEquals(129L, index.suggest("spirted", AutocompleteIndex.MOVIE, 10).get(0).id());
+                assertEquals(List.of(10681L), ids(index.suggest("amelie", AutocompleteIndex.MOVIE, 10)));
+                assertEquals(List.of(525L), ids(index.suggest("cristopher", AutocompleteIndex.PERSON, 10)));
+        }
+
+        @Test
+        public void testSuggest_UserActivityRaisesRankingAndAddsNewTitles() throws Exception {
+                index.addActivity("9999", "Dark Water", "2005-07-08", null, 10);
+                index.addActivity("680", "Pulp Fiction", "1994-09-10", "/p.jpg", 1);
+                index.awaitUpdates();
+
+                assertEquals(9999L, index.suggest("dark", AutocompleteIndex.MOVIE, 10).get(0).id());
+                AutocompleteIndex.Suggestion pulp = index.suggest("pulp", null, 10).get(0);
+                assertEquals("1994", pulp.year());
+                assertEquals("/p.jpg", pulp.imagePath());
+        }
+
+        @Test
+        public void testSuggest_BothTypesWhenTypeIsOmitted() throws Exception {
+                index.addMovies(List.of(movie(1, "Christopher Robin", "2018-08-02", 10.0)));
+                index.awaitUpdates();
+
+                List<String> types = index.suggest("christopher", null, 10).stream()
+                                .map(AutocompleteIndex.Suggestion::type).toList();
+                assertTrue(types.containsAll(List.of(AutocompleteIndex.MOVIE, AutocompleteIndex.PERSON)));
+        }
+
+        @Test
+        public void testUpdate_LeastPopularAreDroppedPastTheCap() throws Exception {
+                AutocompleteIndex small = new AutocompleteIndex(null, null, null, null, 10);
+                try {
+                        List<TmdbMovieSummary> movies = new ArrayList<>();
+                        for (int i = 1; i <= 11; i++) {
+                                movies.add(movie(i, "Title " + i, null, (double) i));
+                        }
+                        small.addMovies(movies);
+                        small.awaitUpdates();
+
+                        // Down to nine tenths of the cap, least popular first
+                        assertEquals(9, small.size());
+                        assertEquals(List.of(11L, 10L, 9L), ids(small.suggest("title", null, 3)));
+                        assertTrue(small.suggest("title 1", null, 10).stream()
+                                        .noneMatch(suggestion -> suggestion.id() == 1L || suggestion.id() == 2L));
+                } finally {
+                        small.stop();
+                }
+        }
+
+        @Test
+        public void testUpdate_RetitledEntryIsNoLongerFoundByItsOldTitle() throws Exception {
+                AutocompleteIndex small = new AutocompleteIndex(null, null, null, null, 10);
+                try {
+                        small.addMovies(List.of(movie(1, "Working Title", null, 5.0)));
+                        small.addMovies(List.of(movie(1, "Final Cut", null, 5.0)));
+                        small.awaitUpdates();
+
+                        assertEquals(List.of(), ids(small.suggest("working", null, 10)));
+                        assertEquals(List.of(1L), ids(small.suggest("final", null, 10)));
+                } finally {
+                        small.stop();
+                }
+        }
+}
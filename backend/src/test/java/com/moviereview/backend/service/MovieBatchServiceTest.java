@@ -0,0 +1,86 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MovieBatchServiceTest {
+
+        private TmdbService tmdbService;
+        private MovieBatchService batchService;
+
+        @BeforeEach
+        public void setUp() {
+                tmdbService = Mockito.mock(TmdbService.class);
+                Mockito.when(tmdbService.getMovie(Mockito.anyString(), Mockito.eq(false))).thenAnswer(invocation -> {
+                        String id = invocation.getArgument(0);
+                        Thread.sleep(200);
+                        return id.equals("0") || id.equals("500") ? null : movie(Long.parseLong(id));
+                });
+                Mockito.when(tmdbService.isMovieMissing("0")).thenReturn(true);
+                batchService = new MovieBatchService(tmdbService, 8, 16, Duration.ofSeconds(5),
+                                new SimpleMeterRegistry());
+        }
+
+        @AfterEach
+        public void tearDown() {
+                batchService.stop();
+        }
+
+        private static TmdbMovie movie(long id) {
+                return new TmdbMovie(id, "Movie " + id, null, null, null, null, null, null, null, null, null, null,
+                                null, null, null, null, null, null);
+        }
+
+        @Test
+        public void testGetMovies_DedupesAndReportsErrorsPerId() {
+                MovieBatchService.BatchResult result = batchService.getMovies(
+                                List.of("603", "27205", "603", "0", "500", "abc", " "));
+
+                assertEquals(List.of("603", "27205"), new ArrayList<>(result.results().keySet()));
+                assertEquals(Map.of("0", MovieBatchService.NOT_FOUND, "500", MovieBatchService.UNAVAILABLE,
+                                "abc", MovieBatchService.INVALID_ID), result.errors());
+                Mockito.verify(tmdbService, Mockito.times(1)).getMovie("603", false);
+        }
+
+        @Test
+        public void testGetMovies_LatencyBoundedBySlowestCallNotTheSum() {
+                List<String> ids = new ArrayList<>();
+                for (int i = 1; i <= 8; i++) {
+                        ids.add(Integer.toString(i));
+                }
+
+                long started = System.nanoTime();
+                MovieBatchService.BatchResult result = batchService.getMovies(ids);
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+                assertEquals(8, result.results().size());
+                // Sequentially this would take 8 x 200 ms
+                assertTrue(elapsedMillis < 800, "took " + elapsedMillis + " ms");
+        }
+
+        @Test
+        public void testGetMovies_UnfinishedIdsTimeOut() {
+                MovieBatchService slowBatch = new MovieBatchService(tmdbService, 1, 1, Duration.ofMillis(300),
+                                new SimpleMeterRegistry());
+                try {
+                        MovieBatchService.BatchResult result = slowBatch.getMovies(List.of("1", "2", "3"));
+
+                        assertEquals(1, result.results().size());
+                        assertEquals(MovieBatchService.TIMEOUT, result.errors().get("3"));
+                } finally {
+                        slowBatch.stop();
+                }
+        }
+}
@@ -0,0 +1,116 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MovieCatalogTest {
+
+        @TempDir
+        Path directory;
+
+        private MovieCatalog catalog;
+
+        private MovieCatalog openCatalog() throws Exception {
+                MovieCatalog opened = new MovieCatalog(true, directory, "", Duration.ofHours(6), null,
+                                new ObjectMapper());
+                opened.open();
+                return opened;
+        }
+
+        @AfterEach
+        public void tearDown() throws Exception {
+                if (catalog != null) {
+                        catalog.close();
+                }
+        }
+
+        private static TmdbMovieSummary movie(long id, String title, String releaseDate, Double popularity) {
+                return new TmdbMovieSummary(id, title, title, null, null, releaseDate, "/" + id + ".jpg", null,
+                                7.5, 1000, popularity);
+        }
+
+        private static List<Long> ids(TmdbPage<TmdbMovieSummary> page) {
+                return page.results().stream().map(TmdbMovieSummary::id).toList();
+        }
+
+        @Test
+        public void testSearch_RanksByRelevanceAndPopularity() throws Exception {
+                catalog = openCatalog();
+                catalog.enrich(List.of(
+                                movie(603, "The Matrix", "1999-03-31", 80.0),
+                                movie(604, "The Matrix Reloaded", "2003-05-15", 40.0),
+                                movie(9999, "Matrix of Obscurity", "2011-01-01", 0.5),
+                                movie(27205, "Inception", "2010-07-15", 90.0)));
+                catalog.flush();
+
+                TmdbPage<TmdbMovieSummary> result = catalog.search("matrix", 1);
+
+                assertEquals(List.of(603L, 604L, 9999L), ids(result));
+                assertEquals(3, result.totalResults());
+                assertEquals("/603.jpg", result.results().get(0).posterPath());
+        }
+
+        @Test
+        public void testSearch_MatchesYearAndPrefixOfLastWord() throws Exception {
+                catalog = openCatalog();
+                catalog.enrich(List.of(
+                                movie(603, "The Matrix", "1999-03-31", 80.0),
+                                movie(604, "The Matrix Reloaded", "2003-05-15", 40.0)));
+                catalog.flush();
+
+                assertEquals(List.of(604L), ids(catalog.search("matrix 2003", 1)));
+                assertEquals(List.of(604L), ids(catalog.search("matrix rel", 1)));
+                assertEquals(0, catalog.search("matrix rel ", 1).totalResults());
+        }
+
+        @Test
+        public void testSearch_ExportOnlyMoviesAreNotReturnedUntilEnriched() throws Exception {
+                catalog = openCatalog();
+                String export = "{\"adult\":false,\"id\":603,\"original_title\":\"The Matrix\",\"popularity\":80.0,"
+                                + "\"video\":false}\n"
+                                + "{\"adult\":true,\"id\":700,\"original_title\":\"Matrix XXX\",\"popularity\":1.0,"
+                                + "\"video\":false}\n";
+                catalog.ingestExport(new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)), "01_01_2026");
+                catalog.flush();
+
+                assertEquals(1, catalog.size());
+                assertEquals(0, catalog.search("matrix", 1).totalResults());
+
+                // Details carry no popularity; the one from the export is kept
+                catalog.enrich(List.of(movie(603, "The Matrix", "1999-03-31", null)));
+                catalog.flush();
+                assertEquals(List.of(603L), ids(catalog.search("matrix", 1)));
+        }
+
+        @Test
+        public void testIndexSurvivesRestart() throws Exception {
+                catalog = openCatalog();
+                catalog.enrich(List.of(movie(27205, "Inception", "2010-07-15", 90.0)));
+                catalog.flush();
+                catalog.close();
+
+                catalog = openCatalog();
+                assertEquals(List.of(27205L), ids(catalog.search("inception", 1)));
+        }
+
+        @Test
+        public void testSearch_DisabledCatalogDefersToTmdb() {
+                MovieCatalog disabled = new MovieCatalog(false, directory, "", Duration.ofHours(6), null,
+                                new ObjectMapper());
+
+                assertNull(disabled.search("matrix", 1));
+        }
+}
@@ -0,0 +1,130 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.moviereview.backend.model.tmdb.TmdbPersonSummary;
+import com.moviereview.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiSearchServiceTest {
+
+        private MovieSearchService movieSearchService;
+        private TmdbService tmdbService;
+        private UserRepository userRepository;
+        private MultiSearchService searchService;
+
+        @BeforeEach
+        public void setUp() {
+                movieSearchService = Mockito.mock(MovieSearchService.class);
+                tmdbService = Mockito.mock(TmdbService.class);
+                userRepository = Mockito.mock(UserRepository.class);
+                searchService = new MultiSearchService(movieSearchService, tmdbService, userRepository,
+                                Duration.ofMillis(500), 10, 2, 2, 4, new SimpleMeterRegistry());
+
+                Mockito.when(movieSearchService.searchMovies("keanu", 1)).thenReturn(new TmdbPage<>(1,
+                                List.of(movie(1, "Keanu", 20.0), movie(2, "John Wick", 90.0)), 3, 50));
+                User user = new User();
+                user.setId(7L);
+                user.setName("Keanu Fan");
+                user.setEmail("fan@example.com");
+                Mockito.when(userRepository.findByNameContainingIgnoreCaseOrderByName(Mockito.eq("keanu"),
+                                Mockito.any()))
+                                .thenReturn(new SliceImpl<>(List.of(user), PageRequest.of(0, 20), false));
+        }
+
+        @AfterEach
+        public void tearDown() {
+                searchService.stop();
+        }
+
+        private static TmdbMovieSummary movie(long id, String title, double popularity) {
+                return new TmdbMovieSummary(id, title, null, null, null, null, null, null, null, null, popularity);
+        }
+
+        @Test
+        public void testSearch_SlowSectionTimesOutWithoutHidingOthers() {
+                Mockito.when(tmdbService.searchPeople("keanu", 1)).thenAnswer(invocation -> {
+                        Thread.sleep(3000);
+                        return null;
+                });
+
+                long started = System.nanoTime();
+                MultiSearchService.SearchResult result = searchService.search("keanu", null, null);
+
+                assertTrue(System.nanoTime() - started < Duration.ofMillis(2000).toNanos());
+                assertEquals("timeout", result.people().status());
+                assertEquals("ok", result.users().status());
+                assertEquals("2", result.movies().nextCursor());
+                assertNull(result.users().nextCursor());
+                // The exact title ranks first; the user's prefix match beats John Wick's weak one
+                assertEquals(List.of("movie:1", "user:7", "movie:2"), result.top().stream()
+                                .map(hit -> hit.type() + ":" + hit.id()).toList());
+        }
+
+        @Test
+        public void testSearch_SectionCursorQueriesOnlyThatSection() {
+                Mockito.when(movieSearchService.searchMovies("keanu", 3)).thenReturn(new TmdbPage<>(3,
+                                List.of(movie(3, "Keanu Reeves Story", 1.0)), 3, 50));
+
+                MultiSearchService.SearchResult result = searchService.search("keanu", MultiSearchService.MOVIES, "3");
+
+                assertEquals(1, result.movies().results().size());
+                assertNull(result.movies().nextCursor());
+                assertNull(result.people());
+                assertNull(result.top());
+                Mockito.verifyNoInteractions(tmdbService, userRepository);
+        }
+
+        @Test
+        public void testSearch_StalledTmdbDoesNotStarveUsers() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                Mockito.when(tmdbService.searchPeople("keanu", 1)).thenAnswer(invocation -> {
+                        release.await();
+                        return null;
+                });
+                Mockito.when(movieSearchService.searchMovies("keanu", 1)).thenAnswer(invocation -> {
+                        release.await();
+                        return null;
+                });
+                ExecutorService clients = Executors.newFixedThreadPool(4);
+                try {
+                        List<Future<MultiSearchService.SearchResult>> searches = new ArrayList<>();
+                        for (int i = 0; i < 4; i++) {
+                                searches.add(clients.submit(() -> searchService.search("keanu", null, null)));
+                        }
+
+                        int rejected = 0;
+                        for (Future<MultiSearchService.SearchResult> search : searches) {
+                                MultiSearchService.SearchResult result = search.get();
+                                assertEquals("ok", result.users().status());
+                                for (MultiSearchService.Section<?> section : List.of(result.movies(), result.people())) {
+                                        rejected += section.status().equals("error") ? 1 : 0;
+                                }
+                        }
+                        // Two running and two queued TMDB sections; the other four are turned away
+                        assertEquals(4, rejected);
+                } finally {
+                        release.countDown();
+                        clients.shutdownNow();
+                }
+        }
+}
@@ -0,0 +1,111 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TmdbAccessSketchTest {
+
+        @TempDir
+        Path directory;
+
+        private TmdbAccessSketch createSketch() {
+                return new TmdbAccessSketch(true, 1024, 50, directory.resolve("access.sketch"),
+                                Duration.ofMinutes(5));
+        }
+
+        /**
+         * A view of a key that loaded.
+         */
+        private static void view(TmdbAccessSketch sketch, String key) {
+                sketch.record(key);
+                sketch.admit(key);
+        }
+
+        @Test
+        public void testTop_HeavyHittersSurviveLongTail() {
+                TmdbAccessSketch sketch = createSketch();
+                for (int round = 0; round < 20; round++) {
+                        view(sketch, "movie:603");
+                        view(sketch, "movie:27205");
+                        view(sketch, "movie:27205");
+                        view(sketch, "person:6384");
+                        // Each long-tail movie is viewed once, more distinct keys than there are candidates
+                        for (int i = 0; i < 20; i++) {
+                                view(sketch, "movie:" + (100_000 + round * 20 + i));
+                        }
+                }
+
+                assertEquals(List.of("movie:27205", "movie:603"), sketch.top("movie:", 2));
+                assertEquals(List.of("person:6384"), sketch.top("person:", 5));
+                // 60 of the 480 accesses
+                double coverage = sketch.coverage(List.of("movie:27205", "movie:603"));
+                assertTrue(coverage >= 0.125 && coverage < 0.2, "coverage " + coverage);
+        }
+
+        @Test
+        public void testRestore_KeepsFrequenciesAcrossRestarts() {
+                TmdbAccessSketch sketch = createSketch();
+                for (int i = 0; i < 5; i++) {
+                        view(sketch, "movie:603");
+                }
+                view(sketch, "person:6384");
+                sketch.persist();
+
+                TmdbAccessSketch restored = createSketch();
+                restored.restore();
+
+                assertEquals(5, restored.estimate("movie:603"));
+                assertEquals(List.of("movie:603"), restored.top("movie:", 10));
+                assertEquals(List.of("person:6384"), restored.top("person:", 10));
+        }
+
+        @Test
+        public void testAdmit_KeysThatNeverLoadedAreNotCandidates() {
+                TmdbAccessSketch sketch = createSketch();
+                for (int i = 0; i < 5; i++) {
+                        sketch.record("movie:0");
+                }
+                view(sketch, "movie:603");
+                // Never recorded, e.g. loaded by a prefetch
+                sketch.admit("movie:27205");
+
+                assertEquals(5, sketch.estimate("movie:0"));
+                assertEquals(List.of("movie:603"), sketch.top("movie:", 10));
+        }
+
+        @Test
+        public void testRecord_ConcurrentViewsAreAllCounted() throws Exception {
+                TmdbAccessSketch sketch = createSketch();
+                ExecutorService executor = Executors.newFixedThreadPool(4);
+                try {
+                        List<Future<?>> views = new ArrayList<>();
+                        for (int thread = 0; thread < 4; thread++) {
+                                views.add(executor.submit(() -> {
+                                        for (int i = 0; i < 1000; i++) {
+                                                sketch.record("movie:603");
+                                        }
+                                }));
+                        }
+                        for (Future<?> view : views) {
+                                view.get(5, TimeUnit.SECONDS);
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertEquals(4000, sketch.estimate("movie:603"));
+                assertEquals(1, sketch.coverage(List.of("movie:603")));
+        }
+}
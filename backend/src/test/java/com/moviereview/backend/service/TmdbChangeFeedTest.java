@@ -0,0 +1,133 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.tmdb.TmdbChange;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TmdbChangeFeedTest {
+
+        private static final Instant NOW = Instant.parse("2024-03-20T12:00:00Z");
+
+        @TempDir
+        Path directory;
+
+        private TmdbService tmdbService;
+        private SimpleMeterRegistry meterRegistry;
+
+        @BeforeEach
+        public void setUp() throws IOException {
+                tmdbService = Mockito.mock(TmdbService.class);
+                meterRegistry = new SimpleMeterRegistry();
+                Mockito.when(tmdbService.getChanges(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                                Mockito.anyInt())).thenReturn(page(1, 1));
+                Mockito.when(tmdbService.applyMovieChange(Mockito.anyString(), Mockito.anyLong()))
+                                .thenReturn(TmdbService.ChangeOutcome.UNCACHED);
+                Mockito.when(tmdbService.applyPersonChange(Mockito.anyString(), Mockito.anyLong()))
+                                .thenReturn(TmdbService.ChangeOutcome.UNCACHED);
+        }
+
+        private TmdbChangeFeed createFeed() {
+                TmdbChangeFeed feed = new TmdbChangeFeed(tmdbService, true, Duration.ofHours(1),
+                                directory.resolve("changes.checkpoint"), Duration.ofDays(30), meterRegistry);
+                feed.restoreCheckpoint();
+                return feed;
+        }
+
+        private static TmdbPage<TmdbChange> page(int page, int totalPages, long... ids) {
+                List<TmdbChange> results = Arrays.stream(ids).mapToObj(id -> new TmdbChange(id, false))
+                                .toList();
+                return new TmdbPage<>(page, results, totalPages, results.size());
+        }
+
+        @Test
+        public void testSync_CatchesUpFromCheckpointInTmdbSizedRanges() throws IOException {
+                Files.writeString(directory.resolve("changes.checkpoint"), "2024-02-28T08:00:00Z");
+                Mockito.when(tmdbService.getChanges("movie", LocalDate.parse("2024-02-28"),
+                                LocalDate.parse("2024-03-12"), 1)).thenReturn(page(1, 2, 603, 27205));
+                Mockito.when(tmdbService.getChanges("movie", LocalDate.parse("2024-02-28"),
+                                LocalDate.parse("2024-03-12"), 2)).thenReturn(page(2, 2, 603));
+                Mockito.when(tmdbService.getChanges("person", LocalDate.parse("2024-03-13"),
+                                LocalDate.parse("2024-03-19"), 1)).thenReturn(page(1, 1, 6384));
+                Mockito.when(tmdbService.getChanges("movie", LocalDate.parse("2024-03-20"),
+                                LocalDate.parse("2024-03-20"), 1)).thenReturn(page(1, 1, 550));
+                long firstRangeEnd = Instant.parse("2024-03-13T00:00:00Z").toEpochMilli();
+                Mockito.when(tmdbService.applyMovieChange("603", firstRangeEnd))
+                                .thenReturn(TmdbService.ChangeOutcome.REFRESHED);
+
+                TmdbChangeFeed feed = createFeed();
+                feed.sync(NOW.toEpochMilli());
+
+                Mockito.verify(tmdbService).getChanges("movie", LocalDate.parse("2024-03-13"),
+                                LocalDate.parse("2024-03-19"), 1);
+                // Listed on two pages, applied once, and kept if fetched after the range's last day
+                Mockito.verify(tmdbService, Mockito.times(1)).applyMovieChange(Mockito.eq("603"), Mockito.anyLong());
+                Mockito.verify(tmdbService).applyMovieChange("603", firstRangeEnd);
+                Mockito.verify(tmdbService).applyMovieChange("27205", firstRangeEnd);
+                Mockito.verify(tmdbService).applyPersonChange("6384",
+                                Instant.parse("2024-03-20T00:00:00Z").toEpochMilli());
+                // Today is still open
+                Mockito.verify(tmdbService).applyMovieChange("550", NOW.toEpochMilli());
+                assertEquals(1, meterRegistry.counter("tmdb.changes", "type", "movie", "outcome", "refreshed").count());
+                assertEquals(NOW.toEpochMilli(), feed.checkpoint());
+                assertEquals(NOW.toString(), Files.readString(directory.resolve("changes.checkpoint")));
+        }
+
+        @Test
+        public void testSync_TodaysChangesAreAppliedOnceUntilTheDayEnds() throws IOException {
+                Files.writeString(directory.resolve("changes.checkpoint"), NOW.toString());
+                LocalDate today = LocalDate.parse("2024-03-20");
+                Mockito.when(tmdbService.getChanges("movie", today, today, 1))
+                                .thenReturn(page(1, 1, 603))
+                                .thenReturn(page(1, 1, 603, 550))
+                                .thenReturn(page(1, 1, 603, 550));
+                TmdbChangeFeed feed = createFeed();
+
+                long later = NOW.plus(Duration.ofMinutes(15)).toEpochMilli();
+                feed.sync(NOW.toEpochMilli());
+                feed.sync(later);
+
+                Mockito.verify(tmdbService).applyMovieChange("603", NOW.toEpochMilli());
+                Mockito.verify(tmdbService).applyMovieChange("550", later);
+                Mockito.verify(tmdbService, Mockito.times(2)).applyMovieChange(Mockito.anyString(), Mockito.anyLong());
+
+                // Once the day has ended it is gone over again, for changes made after an id was applied
+                long tomorrow = Instant.parse("2024-03-21T00:10:00Z").toEpochMilli();
+                feed.sync(tomorrow);
+
+                long dayEnd = Instant.parse("2024-03-21T00:00:00Z").toEpochMilli();
+                Mockito.verify(tmdbService).applyMovieChange("603", dayEnd);
+                Mockito.verify(tmdbService).applyMovieChange("550", dayEnd);
+                assertEquals(tomorrow, feed.checkpoint());
+        }
+
+        @Test
+        public void testSync_FailedRangeIsRetriedFromLastCheckpoint() throws IOException {
+                Files.writeString(directory.resolve("changes.checkpoint"), "2024-02-28T08:00:00Z");
+                Mockito.when(tmdbService.getChanges("person", LocalDate.parse("2024-03-13"),
+                                LocalDate.parse("2024-03-19"), 1)).thenThrow(new IOException("TMDB unavailable"));
+
+                TmdbChangeFeed feed = createFeed();
+                assertThrows(IOException.class, () -> feed.sync(NOW.toEpochMilli()));
+
+                // The first range completed, so a restarted feed resumes at the second
+                long secondRange = Instant.parse("2024-03-13T00:00:00Z").toEpochMilli();
+                assertEquals(secondRange, feed.checkpoint());
+                assertEquals(secondRange, createFeed().checkpoint());
+        }
+}
@@ -0,0 +1,166 @@
+package com.moviereview.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TmdbClientTest {
+
+        private HttpServer server;
+        private final AtomicInteger slowCalls = new AtomicInteger();
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        @BeforeEach
+        public void setUp() throws IOException {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+                server.createContext("/fast", exchange -> respond(exchange, "{}"));
+                // Only the first call is slow, like an occasional stalled TMDB response
+                server.createContext("/slow", exchange -> {
+                        if (slowCalls.incrementAndGet() == 1) {
+                                try {
+                                        Thread.sleep(1500);
+                                } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                }
+                        }
+                        respond(exchange, "{\"slow\":true}");
+                });
+                server.createContext("/stalled", exchange -> {
+                        try {
+                                Thread.sleep(2000);
+                        } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                        }
+                        respond(exchange, "{}");
+                });
+                server.setExecutor(Executors.newCachedThreadPool());
+                server.start();
+        }
+
+        @AfterEach
+        public void tearDown() {
+                server.stop(0);
+        }
+
+        private TmdbClient createClient(double budget) {
+                return new TmdbClient(new RestTemplate(), CircuitBreaker.ofDefaults("tmdb"), bulkhead(),
+                                Duration.ofSeconds(5), true, 0.95,
+                                Duration.ofMillis(50), budget, meterRegistry);
+        }
+
+        private static ThreadPoolBulkhead bulkhead() {
+                return ThreadPoolBulkhead.of("tmdb", ThreadPoolBulkheadConfig.custom()
+                                .coreThreadPoolSize(4).maxThreadPoolSize(4).build());
+        }
+
+        private static void awaitIdle(ThreadPoolBulkhead bulkhead, Duration within) throws InterruptedException {
+                long deadline = System.nanoTime() + within.toNanos();
+                while (bulkhead.getMetrics().getActiveThreadCount() > 0 && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                }
+        }
+
+        private String url(String path) {
+                return "http://localhost:" + server.getAddress().getPort() + path;
+        }
+
+        private void warmUp(TmdbClient client) {
+                for (int i = 0; i < 64; i++) {
+                        client.get(url("/fast"));
+                }
+        }
+
+        @Test
+        public void testGet_SlowCallIsHedgedAfterPercentileDelay() {
+                TmdbClient client = createClient(0.5);
+                warmUp(client);
+                // Derived from the fast calls, far below the slow call's 1.5s
+                assertTrue(client.hedgeDelayMillis() < 500);
+                double issued = meterRegistry.counter("tmdb.hedge", "outcome", "issued").count();
+
+                long started = System.nanoTime();
+                String body = new String(client.get(url("/slow")), StandardCharsets.UTF_8);
+
+                assertEquals("{\"slow\":true}", body);
+                assertTrue(System.nanoTime() - started < Duration.ofMillis(1000).toNanos());
+                assertEquals(2, slowCalls.get());
+                assertEquals(issued + 1, meterRegistry.counter("tmdb.hedge", "outcome", "issued").count());
+        }
+
+        @Test
+        public void testGet_NoHedgeWithoutBudget() {
+                TmdbClient client = createClient(0);
+                warmUp(client);
+                double skipped = meterRegistry.counter("tmdb.hedge", "outcome", "skipped").count();
+
+                client.get(url("/slow"));
+
+                assertEquals(1, slowCalls.get());
+                assertEquals(0, meterRegistry.counter("tmdb.hedge", "outcome", "issued").count());
+                assertEquals(skipped + 1, meterRegistry.counter("tmdb.hedge", "outcome", "skipped").count());
+        }
+
+        @Test
+        public void testGet_LosingAttemptReleasesItsBulkheadThread() throws Exception {
+                ThreadPoolBulkhead bulkhead = bulkhead();
+                try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+                        TmdbClient client = new TmdbClient(new RestTemplate(new AbortableRequestFactory(httpClient)),
+                                        CircuitBreaker.ofDefaults("tmdb"), bulkhead, Duration.ofSeconds(5), true, 0.95,
+                                        Duration.ofMillis(50), 0.5, meterRegistry);
+                        warmUp(client);
+
+                        long started = System.nanoTime();
+                        client.get(url("/slow"));
+                        // Answered by the hedge
+                        assertTrue(System.nanoTime() - started < Duration.ofMillis(1000).toNanos());
+
+                        // The primary is stalled upstream for another second; aborting it frees its thread now
+                        awaitIdle(bulkhead, Duration.ofMillis(500));
+                        assertEquals(0, bulkhead.getMetrics().getActiveThreadCount());
+                }
+        }
+
+        @Test
+        public void testGet_TimedOutAttemptReleasesItsBulkheadThread() throws Exception {
+                ThreadPoolBulkhead bulkhead = bulkhead();
+                try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+                        TmdbClient client = new TmdbClient(new RestTemplate(new AbortableRequestFactory(httpClient)),
+                                        CircuitBreaker.ofDefaults("tmdb"), bulkhead, Duration.ofMillis(300), false, 0.95,
+                                        Duration.ofMillis(50), 0, meterRegistry);
+
+                        assertThrows(IllegalStateException.class, () -> client.get(url("/stalled")));
+
+                        awaitIdle(bulkhead, Duration.ofMillis(500));
+                        assertEquals(0, bulkhead.getMetrics().getActiveThreadCount());
+                }
+        }
+
+        private static void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                }
+        }
+}
@@ -0,0 +1,137 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TmdbDiskStoreTest {
+
+        @TempDir
+        Path directory;
+
+        private TmdbDiskStore openStore(DataSize maxSize) throws Exception {
+                TmdbDiskStore store = new TmdbDiskStore(true, directory, maxSize, Duration.ofDays(30));
+                store.open();
+                return store;
+        }
+
+        private static byte[] body(String json) {
+                return json.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String text(TmdbDiskStore.StoredEntry entry) {
+                return new String(entry.body(), StandardCharsets.UTF_8);
+        }
+
+        @Test
+        public void testRestoreFromSnapshotAfterGracefulShutdown() throws Exception {
+                TmdbDiskStore store = openStore(DataSize.ofMegabytes(1));
+                store.put("/movie/1", TmdbEndpoint.MOVIE, body("{\"id\":1}"));
+                store.put("/person/2", TmdbEndpoint.PERSON, body("{\"id\":2}"));
+                store.close();
+
+                TmdbDiskStore restored = openStore(DataSize.ofMegabytes(1));
+                assertEquals("{\"id\":1}", text(restored.get("/movie/1")));
+                assertEquals(TmdbEndpoint.PERSON, restored.get("/person/2").endpoint());
+                restored.close();
+        }
+
+        @Test
+        public void testRecoverRecordsWrittenAfterLastSnapshot() throws Exception {
+                TmdbDiskStore store = openStore(DataSize.ofMegabytes(1));
+                store.put("/movie/1", TmdbEndpoint.MOVIE, body("{\"id\":1}"));
+                store.close();
+
+                Files.copy(directory.resolve("tmdb.index"), directory.resolve("old.index"));
+
+                TmdbDiskStore reopened = openStore(DataSize.ofMegabytes(1));
+                reopened.put("/movie/2", TmdbEndpoint.MOVIE, body("{\"id\":2}"));
+                reopened.put("/movie/1", TmdbEndpoint.MOVIE, body("{\"id\":1,\"title\":\"new\"}"));
+                reopened.close();
+                // Simulate a crash: the last snapshot predates these appends
+                Files.move(directory.resolve("old.index"), directory.resolve("tmdb.index"),
+                                StandardCopyOption.REPLACE_EXISTING);
+
+                TmdbDiskStore recovered = openStore(DataSize.ofMegabytes(1));
+                assertEquals("{\"id\":1,\"title\":\"new\"}", text(recovered.get("/movie/1")));
+                assertEquals("{\"id\":2}", text(recovered.get("/movie/2")));
+                recovered.close();
+        }
+
+        @Test
+        public void testRemoveSurvivesRestart() throws Exception {
+                TmdbDiskStore store = openStore(DataSize.ofMegabytes(1));
+                store.put("/movie/1", TmdbEndpoint.MOVIE, body("{\"id\":1}"));
+                store.remove("/movie/1");
+                assertNull(store.get("/movie/1"));
+                store.close();
+
+                TmdbDiskStore reopened = openStore(DataSize.ofMegabytes(1));
+                assertNull(reopened.get("/movie/1"));
+                reopened.close();
+        }
+
+        @Test
+        public void testCompactionKeepsLatestRecordsWithinBudget() throws Exception {
+                TmdbDiskStore store = openStore(DataSize.ofKilobytes(64));
+                String padding = "x".repeat(1000);
+                for (int i = 0; i < 200; i++) {
+                        store.put("/movie/" + (i % 10), TmdbEndpoint.MOVIE,
+                                        body("{\"id\":" + i + ",\"p\":\"" + padding + "\"}"));
+                }
+                store.awaitCompaction();
+
+                assertEquals(10, store.size());
+                assertTrue(text(store.get("/movie/9")).startsWith("{\"id\":199,"));
+                assertTrue(Files.size(directory.resolve("tmdb.segment")) <= DataSize.ofKilobytes(64).toBytes());
+                store.close();
+        }
+
+        @Test
+        public void testWritesDuringBackgroundCompactionAreKept() throws Exception {
+                TmdbDiskStore store = openStore(DataSize.ofKilobytes(256));
+                String padding = "x".repeat(1000);
+                ExecutorService writer = Executors.newSingleThreadExecutor();
+                try {
+                        // Keeps appending and removing while compactions copy the segment
+                        writer.submit(() -> {
+                                for (int i = 0; i < 2000; i++) {
+                                        store.put("/movie/" + (i % 50), TmdbEndpoint.MOVIE,
+                                                        body("{\"id\":" + i + ",\"p\":\"" + padding + "\"}"));
+                                        if (i % 50 == 7) {
+                                                store.remove("/movie/7");
+                                        }
+                                }
+                        }).get();
+                } finally {
+                        writer.shutdown();
+                }
+                store.awaitCompaction();
+
+                assertEquals(49, store.size());
+                assertNull(store.get("/movie/7"));
+                for (int key = 0; key < 50; key++) {
+                        if (key != 7) {
+                                assertTrue(text(store.get("/movie/" + key)).startsWith("{\"id\":" + (1950 + key) + ","));
+                        }
+                }
+                store.close();
+
+                TmdbDiskStore reopened = openStore(DataSize.ofKilobytes(256));
+                assertEquals(49, reopened.size());
+                assertTrue(text(reopened.get("/movie/49")).startsWith("{\"id\":1999,"));
+                reopened.close();
+        }
+}
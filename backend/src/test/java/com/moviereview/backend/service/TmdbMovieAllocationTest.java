@@ -0,0 +1,114 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import com.moviereview.backend.model.tmdb.TmdbProjection;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the bytes allocated to turn one large {@code /movie/{id}} response
+ * into the JSON sent to the client: the old untyped Map tree against the
+ * typed, projected {@link TmdbMovie}. Results are printed so the numbers can
+ * be compared across changes.
+ */
+public class TmdbMovieAllocationTest {
+
+        private static final int WARMUP = 200;
+        private static final int ITERATIONS = 500;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @Test
+        public void testTypedMovieAllocatesLessThanMapTree() throws Exception {
+                byte[] body = largeMovieResponse().getBytes(StandardCharsets.UTF_8);
+                ObjectReader mapReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {
+                });
+                ObjectReader movieReader = objectMapper.readerFor(TmdbMovie.class)
+                                .withAttribute(TmdbProjection.ATTRIBUTE, new TmdbProjection(100, 100, Set.of()));
+
+                long mapBytes = allocatedPerCall(() -> objectMapper.writeValueAsBytes(mapReader.readValue(body)));
+                long typedBytes = allocatedPerCall(() -> objectMapper.writeValueAsBytes(movieReader.readValue(body)));
+                int mapResponse = objectMapper.writeValueAsBytes(mapReader.readValue(body)).length;
+                int typedResponse = objectMapper.writeValueAsBytes(movieReader.readValue(body)).length;
+
+                System.out.printf("getMovie allocation per call (%d KB response): map %d KB, typed %d KB%n",
+                                body.length / 1024, mapBytes / 1024, typedBytes / 1024);
+                System.out.printf("getMovie response size: map %d KB, typed %d KB%n",
+                                mapResponse / 1024, typedResponse / 1024);
+                assertTrue(typedBytes < mapBytes / 2, "typed " + typedBytes + " vs map " + mapBytes);
+        }
+
+        private static long allocatedPerCall(Call call) throws Exception {
+                com.sun.management.ThreadMXBean threads =
+                                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                long thread = Thread.currentThread().getId();
+                for (int i = 0; i < WARMUP; i++) {
+                        call.run();
+                }
+                long before = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < ITERATIONS; i++) {
+                        call.run();
+                }
+                return (threads.getThreadAllocatedBytes(thread) - before) / ITERATIONS;
+        }
+
+        /**
+         * Roughly the shape and size of a blockbuster's response with credits
+         * and release dates appended.
+         */
+        private static String largeMovieResponse() {
+                StringBuilder json = new StringBuilder("{\"adult\":false,\"backdrop_path\":\"/b.jpg\",\"budget\":356000000,"
+                                + "\"genres\":[{\"id\":12,\"name\":\"Adventure\"},{\"id\":878,\"name\":\"Science Fiction\"}],"
+                                + "\"homepage\":\"https://example.com\",\"id\":299534,\"imdb_id\":\"tt4154796\","
+                                + "\"original_language\":\"en\",\"original_title\":\"Avengers: Endgame\","
+                                + "\"overview\":\"" + "x".repeat(600) + "\",\"popularity\":101.5,\"poster_path\":\"/p.jpg\","
+                                + "\"production_companies\":[{\"id\":420,\"logo_path\":\"/l.png\",\"name\":\"Marvel Studios\","
+                                + "\"origin_country\":\"US\"}],\"production_countries\":[{\"iso_3166_1\":\"US\","
+                                + "\"name\":\"United States of America\"}],\"release_date\":\"2019-04-24\",\"revenue\":2799439100,"
+                                + "\"runtime\":181,\"spoken_languages\":[{\"english_name\":\"English\",\"iso_639_1\":\"en\","
+                                + "\"name\":\"English\"}],\"status\":\"Released\",\"tagline\":\"Avenge the fallen.\","
+                                + "\"title\":\"Avengers: Endgame\",\"video\":false,\"vote_average\":8.2,\"vote_count\":25000,"
+                                + "\"credits\":{\"cast\":[");
+                for (int i = 0; i < 300; i++) {
+                        json.append(i > 0 ? "," : "").append("{\"adult\":false,\"gender\":2,\"id\":").append(i)
+                                        .append(",\"known_for_department\":\"Acting\",\"name\":\"Actor ").append(i)
+                                        .append("\",\"original_name\":\"Actor ").append(i)
+                                        .append("\",\"popularity\":12.5,\"profile_path\":\"/a").append(i)
+                                        .append(".jpg\",\"cast_id\":").append(i).append(",\"character\":\"Role ").append(i)
+                                        .append("\",\"credit_id\":\"5e85e8083344c60015411cfa\",\"order\":").append(i)
+                                        .append("}");
+                }
+                json.append("],\"crew\":[");
+                for (int i = 0; i < 800; i++) {
+                        json.append(i > 0 ? "," : "").append("{\"adult\":false,\"gender\":1,\"id\":").append(10000 + i)
+                                        .append(",\"known_for_department\":\"Crew\",\"name\":\"Crew ").append(i)
+                                        .append("\",\"original_name\":\"Crew ").append(i)
+                                        .append("\",\"popularity\":1.4,\"profile_path\":null,")
+                                        .append("\"credit_id\":\"5c9f8a0b0e0a2619d6a1b6d1\",\"department\":\"Visual Effects\",")
+                                        .append("\"job\":\"").append(i == 700 ? "Director" : "Compositor").append("\"}");
+                }
+                json.append("]},\"release_dates\":{\"results\":[");
+                for (int i = 0; i < 60; i++) {
+                        json.append(i > 0 ? "," : "").append("{\"iso_3166_1\":\"").append((char) ('A' + i / 26))
+                                        .append((char) ('A' + i % 26)).append("\",\"release_dates\":[")
+                                        .append("{\"certification\":\"12\",\"descriptors\":[],\"iso_639_1\":\"\",\"note\":\"\",")
+                                        .append("\"release_date\":\"2019-04-24T00:00:00.000Z\",\"type\":3},")
+                                        .append("{\"certification\":\"12\",\"descriptors\":[],\"iso_639_1\":\"\",\"note\":\"\",")
+                                        .append("\"release_date\":\"2019-09-02T00:00:00.000Z\",\"type\":5}]}");
+                }
+                return json.append("]}}").toString();
+        }
+
+        private interface Call {
+                void run() throws Exception;
+        }
+}
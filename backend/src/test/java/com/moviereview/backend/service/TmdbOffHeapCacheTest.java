@@ -0,0 +1,97 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.moviereview.backend.model.tmdb.TmdbPerson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TmdbOffHeapCacheTest {
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        private TmdbOffHeapCache create(DataSize maxSize) {
+                return new TmdbOffHeapCache(true, maxSize, DataSize.ofKilobytes(16), meterRegistry);
+        }
+
+        private static TmdbPerson person(long id, int biographyLength) {
+                // Random text, so deflate cannot shrink it much and the entry size stays predictable
+                Random random = new Random(id);
+                StringBuilder biography = new StringBuilder();
+                for (int i = 0; i < biographyLength; i++) {
+                        biography.append((char) ('a' + random.nextInt(26)));
+                }
+                return new TmdbPerson(id, "Person " + id, biography.toString(), null, null, null, null, null, 1.0);
+        }
+
+        private static TmdbPerson get(TmdbOffHeapCache cache, String key) {
+                TmdbOffHeapCache.Entry entry = cache.get(key,
+                                TypeFactory.defaultInstance().constructType(TmdbPerson.class));
+                return entry != null ? (TmdbPerson) entry.value() : null;
+        }
+
+        @Test
+        public void testGet_ReturnsDecodedCopyWithMetadata() {
+                TmdbOffHeapCache cache = create(DataSize.ofKilobytes(64));
+                cache.put("/person/1", TmdbEndpoint.PERSON, person(1, 500), 1234L);
+
+                TmdbOffHeapCache.Entry entry = cache.get("/person/1",
+                                TypeFactory.defaultInstance().constructType(TmdbPerson.class));
+
+                assertEquals(person(1, 500), entry.value());
+                assertEquals(1234L, entry.fetchedAt());
+                assertEquals(TmdbEndpoint.PERSON, entry.endpoint());
+                assertNull(get(cache, "/person/2"));
+                assertEquals(1, meterRegistry.timer("tmdb.offheap.decode").count());
+        }
+
+        @Test
+        public void testPut_EvictsLeastRecentlyUsedWhenFull() {
+                TmdbOffHeapCache cache = create(DataSize.ofKilobytes(16));
+                for (long id = 1; id <= 40; id++) {
+                        cache.put("/person/" + id, TmdbEndpoint.PERSON, person(id, 1000), 0L);
+                        // Keep the first entry hot
+                        assertNotNull(get(cache, "/person/1"));
+                }
+
+                TmdbOffHeapCache.Stats stats = cache.stats();
+                assertEquals(16 * 1024, stats.reservedBytes());
+                assertTrue(stats.entries() < 40);
+                assertNotNull(get(cache, "/person/1"));
+                assertNull(get(cache, "/person/2"));
+                assertNotNull(get(cache, "/person/40"));
+                assertTrue(meterRegistry.counter("tmdb.offheap.evictions").count() > 0);
+                assertTrue(stats.fragmentation() >= 0 && stats.fragmentation() < 0.25);
+        }
+
+        @Test
+        public void testPut_SizeClassWithoutPagesTakesOneOver() {
+                TmdbOffHeapCache cache = create(DataSize.ofKilobytes(16));
+                for (long id = 1; id <= 20; id++) {
+                        cache.put("/person/" + id, TmdbEndpoint.PERSON, person(id, 1000), 0L);
+                }
+
+                // The only page belongs to the small class; a large entry must still get in
+                cache.put("/person/big", TmdbEndpoint.PERSON, person(99, 8000), 0L);
+
+                assertEquals(person(99, 8000), get(cache, "/person/big"));
+                assertEquals(16 * 1024, cache.stats().reservedBytes());
+        }
+
+        @Test
+        public void testPut_ReplacesExistingEntry() {
+                TmdbOffHeapCache cache = create(DataSize.ofKilobytes(64));
+                cache.put("/person/1", TmdbEndpoint.PERSON, person(1, 100), 1L);
+                cache.put("/person/1", TmdbEndpoint.PERSON, person(1, 3000), 2L);
+
+                assertEquals(1, cache.stats().entries());
+                assertEquals(person(1, 3000), get(cache, "/person/1"));
+        }
+}
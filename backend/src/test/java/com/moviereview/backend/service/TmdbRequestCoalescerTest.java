@@ -0,0 +1,53 @@
+package com.moviereview.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TmdbRequestCoalescerTest {
+
+        @Test
+        public void testExecute_ErrorInLoaderReachesWaiters() throws Exception {
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                TmdbRequestCoalescer coalescer = new TmdbRequestCoalescer(meterRegistry);
+                CountDownLatch started = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+
+                CompletableFuture<Object> loading = CompletableFuture.supplyAsync(() -> coalescer.execute("/movie/603",
+                                () -> {
+                                        started.countDown();
+                                        try {
+                                                release.await();
+                                        } catch (InterruptedException e) {
+                                                Thread.currentThread().interrupt();
+                                        }
+                                        throw new StackOverflowError();
+                                }));
+                started.await();
+                CompletableFuture<Object> waiting = CompletableFuture.supplyAsync(
+                                () -> coalescer.execute("/movie/603", () -> "unexpected"));
+                long deadline = System.currentTimeMillis() + 5000;
+                while (meterRegistry.counter("tmdb.requests.coalesced").count() == 0
+                                && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                }
+                release.countDown();
+
+                for (CompletableFuture<Object> call : List.of(loading, waiting)) {
+                        ExecutionException failure = assertThrows(ExecutionException.class,
+                                        () -> call.get(5, TimeUnit.SECONDS));
+                        assertInstanceOf(StackOverflowError.class, failure.getCause());
+                }
+                // The key is free again
+                assertEquals("loaded", coalescer.execute("/movie/603", () -> "loaded"));
+        }
+}
@@ -0,0 +1,372 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbCredits;
+import com.moviereview.backend.model.tmdb.TmdbMovie;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import com.moviereview.backend.model.tmdb.TmdbPage;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TmdbServiceTest {
+
+        private HttpServer server;
+        private final AtomicInteger upstreamCalls = new AtomicInteger();
+        private TmdbService tmdbService;
+        private CircuitBreaker circuitBreaker;
+        private TmdbPrefetcher prefetcher;
+        private SimpleMeterRegistry meterRegistry;
+        private TmdbAccessSketch accessSketch;
+
+        @BeforeEach
+        public void setUp() throws IOException {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+                server.createContext("/movie/27205", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        respond(exchange, 200, "{\"id\":27205,\"title\":\"Inception\"}");
+                });
+                server.createContext("/movie/0", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        respond(exchange, 404, "{\"status_code\":34}");
+                });
+                server.createContext("/movie/550", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        try {
+                                Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                        }
+                        respond(exchange, 200, "{\"id\":550,\"title\":\"Fight Club\"}");
+                });
+                server.createContext("/movie/603", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        respond(exchange, 200, "{\"id\":603,\"title\":\"The Matrix\",\"popularity\":80.1,"
+                                        + "\"belongs_to_collection\":{\"id\":2344,\"name\":\"The Matrix Collection\"},"
+                                        + "\"credits\":{\"cast\":["
+                                        + "{\"id\":6384,\"name\":\"Keanu Reeves\",\"character\":\"Neo\",\"order\":0},"
+                                        + "{\"id\":2975,\"name\":\"Laurence Fishburne\",\"character\":\"Morpheus\"},"
+                                        + "{\"id\":530,\"name\":\"Carrie-Anne Moss\",\"character\":\"Trinity\"}],"
+                                        + "\"crew\":["
+                                        + "{\"id\":1,\"name\":\"Grip\",\"job\":\"Key Grip\",\"department\":\"Camera\"},"
+                                        + "{\"id\":2,\"name\":\"Gaffer\",\"job\":\"Gaffer\",\"department\":\"Lighting\"},"
+                                        + "{\"id\":9339,\"name\":\"Lana Wachowski\",\"job\":\"Director\","
+                                        + "\"department\":\"Directing\"}]},"
+                                        + "\"release_dates\":{\"results\":["
+                                        + "{\"iso_3166_1\":\"US\",\"release_dates\":[{\"certification\":\"R\","
+                                        + "\"release_date\":\"1999-03-31T00:00:00.000Z\",\"type\":3}]},"
+                                        + "{\"iso_3166_1\":\"DE\",\"release_dates\":[{\"certification\":\"16\","
+                                        + "\"release_date\":\"1999-06-17T00:00:00.000Z\",\"type\":3}]}]}}");
+                });
+                server.createContext("/person/", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        String id = exchange.getRequestURI().getPath().split("/")[2];
+                        respond(exchange, 200, exchange.getRequestURI().getPath().endsWith("/movie_credits")
+                                        ? "{\"id\":" + id + ",\"cast\":[],\"crew\":[]}"
+                                        : "{\"id\":" + id + ",\"name\":\"Person " + id + "\"}");
+                });
+                server.createContext("/search/movie", exchange -> {
+                        upstreamCalls.incrementAndGet();
+                        respond(exchange, 200, "{\"page\":1,\"results\":[],\"total_results\":0}");
+                });
+                server.setExecutor(Executors.newCachedThreadPool());
+                server.start();
+
+                tmdbService = createService(DataSize.ofMegabytes(1));
+        }
+
+        private TmdbService createService(DataSize cacheSize) {
+                return createService(cacheSize, false);
+        }
+
+        private TmdbService createService(DataSize cacheSize, boolean prefetch) {
+                return createService(cacheSize, prefetch, false);
+        }
+
+        private TmdbService createService(DataSize cacheSize, boolean prefetch, boolean offHeap) {
+                meterRegistry = new SimpleMeterRegistry();
+                accessSketch = new TmdbAccessSketch(true, 1024, 100, Path.of("unused"), Duration.ofMinutes(5));
+                TmdbCache tmdbCache = new TmdbCache(cacheSize, Duration.ofMinutes(10),
+                                Duration.ofHours(6), Duration.ofHours(24), Duration.ofMinutes(30),
+                                Duration.ofMinutes(5), meterRegistry);
+                TmdbDiskStore diskStore = new TmdbDiskStore(false, Path.of("unused"), DataSize.ofMegabytes(1),
+                                Duration.ofDays(1));
+                circuitBreaker = CircuitBreaker.ofDefaults("tmdb");
+                TmdbClient tmdbClient = new TmdbClient(new RestTemplate(), circuitBreaker,
+                                ThreadPoolBulkhead.ofDefaults("tmdb"), Duration.ofSeconds(5), false, 0.95,
+                                Duration.ofMillis(50), 0.05, meterRegistry);
+                prefetcher = new TmdbPrefetcher(tmdbClient, prefetch, 1000, 200, Duration.ofSeconds(1),
+                                Duration.ofSeconds(30), meterRegistry);
+                prefetcher.start();
+                MovieCatalog movieCatalog = new MovieCatalog(false, Path.of("unused"), "", Duration.ofHours(6),
+                                null, new ObjectMapper());
+                TmdbService service = new TmdbService(tmdbClient, new ObjectMapper(), tmdbCache,
+                                new TmdbRequestCoalescer(meterRegistry), diskStore, movieCatalog,
+                                new AutocompleteIndex(null, null, null, null, 1000), prefetcher,
+                                new TmdbOffHeapCache(offHeap, DataSize.ofMegabytes(4), DataSize.ofKilobytes(64),
+                                                meterRegistry),
+                                accessSketch);
+                ReflectionTestUtils.setField(service, "apiKey", "test-key");
+                ReflectionTestUtils.setField(service, "apiUrl",
+                                "http://localhost:" + server.getAddress().getPort());
+                return service;
+        }
+
+        @AfterEach
+        public void tearDown() {
+                prefetcher.stop();
+                server.stop(0);
+        }
+
+        @Test
+        public void testGetMovie_SecondCallIsServedFromCache() {
+                TmdbMovie first = tmdbService.getMovie("27205");
+                TmdbMovie second = tmdbService.getMovie("27205");
+
+                assertNotNull(first);
+                assertEquals("Inception", second.title());
+                assertEquals(1, upstreamCalls.get());
+        }
+
+        @Test
+        public void testGetMovie_NotFoundIsCachedNegatively() {
+                assertNull(tmdbService.getMovie("0"));
+                assertNull(tmdbService.getMovie("0"));
+                assertEquals(1, upstreamCalls.get());
+        }
+
+        @Test
+        public void testSearchMovies_EmptyResultIsCached() {
+                tmdbService.searchMovies("zzzz", 1);
+                TmdbPage<TmdbMovieSummary> result = tmdbService.searchMovies("zzzz", 1);
+
+                assertNotNull(result);
+                assertEquals(0, result.totalResults());
+                assertEquals(1, upstreamCalls.get());
+        }
+
+        @Test
+        public void testGetMovie_ConcurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+                // A zero-sized cache keeps every lookup a miss, so only coalescing can collapse the calls
+                TmdbService uncachedService = createService(DataSize.ofBytes(0));
+                int callers = 32;
+                ExecutorService executor = Executors.newFixedThreadPool(callers);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<TmdbMovie>> results = new ArrayList<>();
+                try {
+                        for (int i = 0; i < callers; i++) {
+                                results.add(executor.submit(() -> {
+                                        start.await();
+                                        return uncachedService.getMovie("550");
+                                }));
+                        }
+                        start.countDown();
+                        for (Future<TmdbMovie> result : results) {
+                                assertEquals("Fight Club", result.get(5, TimeUnit.SECONDS).title());
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertEquals(1, upstreamCalls.get());
+        }
+
+        @Test
+        public void testGetMovie_OpenCircuitFailsFastWithoutCallingTmdb() {
+                circuitBreaker.transitionToOpenState();
+
+                assertNull(tmdbService.getMovie("27205"));
+                assertEquals(0, upstreamCalls.get());
+        }
+
+        @Test
+        public void testGetMovie_CreditsAndReleaseDatesAreProjected() {
+                ReflectionTestUtils.setField(tmdbService, "maxCast", 2);
+                ReflectionTestUtils.setField(tmdbService, "maxCrew", 1);
+                ReflectionTestUtils.setField(tmdbService, "releaseRegions", List.of("US"));
+
+                TmdbMovie movie = tmdbService.getMovie("603");
+
+                assertEquals("The Matrix", movie.title());
+                assertEquals(List.of("Neo", "Morpheus"),
+                                movie.credits().cast().stream().map(TmdbCredits.CastMember::character).toList());
+                // The director is kept even though the crew cap is already used up
+                assertEquals(Set.of("Key Grip", "Director"),
+                                Set.copyOf(movie.credits().crew().stream().map(TmdbCredits.CrewMember::job).toList()));
+                assertEquals(1, movie.releaseDates().results().size());
+                assertEquals("US", movie.releaseDates().results().get(0).country());
+        }
+
+        @Test
+        public void testGetMovie_HeapMissIsServedFromOffHeapTier() {
+                // Nothing fits in the heap cache, so the second lookup can only come from off-heap memory
+                TmdbService offHeapService = createService(DataSize.ofBytes(0), false, true);
+
+                offHeapService.getMovie("603");
+                TmdbMovie movie = offHeapService.getMovie("603");
+
+                assertEquals(1, upstreamCalls.get());
+                assertEquals("The Matrix", movie.title());
+                assertEquals(3, movie.credits().cast().size());
+                assertEquals("US", movie.releaseDates().results().get(0).country());
+                assertEquals(1, meterRegistry.counter("tmdb.offheap.requests", "result", "hit").count());
+        }
+
+        @Test
+        public void testMovieTag_FollowsCacheEntryVersion() {
+                assertNull(tmdbService.movieTag("27205", null));
+
+                TmdbMovie movie = tmdbService.getMovie("27205");
+                String tag = tmdbService.movieTag("27205", movie);
+
+                assertNotNull(tag);
+                assertEquals(tag, tmdbService.movieTag("27205", null));
+                assertNull(tmdbService.movieTag("27205", tmdbService.getMovie("603")));
+                // Not-found entries have no body to validate
+                tmdbService.getMovie("0");
+                assertNull(tmdbService.movieTag("0", null));
+        }
+
+        @Test
+        public void testApplyMovieChange_OnlyStaleEntriesAreReloaded() {
+                assertEquals(TmdbService.ChangeOutcome.UNCACHED,
+                                tmdbService.applyMovieChange("27205", System.currentTimeMillis()));
+
+                tmdbService.getMovie("27205");
+                long fetched = System.currentTimeMillis();
+                assertEquals(TmdbService.ChangeOutcome.CURRENT, tmdbService.applyMovieChange("27205", fetched - 1000));
+                assertEquals(1, upstreamCalls.get());
+
+                // Changed after the cached copy was fetched: dropped and loaded again since it is in the heap cache
+                assertEquals(TmdbService.ChangeOutcome.REFRESHED,
+                                tmdbService.applyMovieChange("27205", fetched + 1000));
+                assertEquals(2, upstreamCalls.get());
+                tmdbService.getMovie("27205");
+                assertEquals(2, upstreamCalls.get());
+
+                // Negative entries are only dropped
+                tmdbService.getMovie("0");
+                assertEquals(TmdbService.ChangeOutcome.EVICTED,
+                                tmdbService.applyMovieChange("0", System.currentTimeMillis() + 1000));
+                assertEquals(3, upstreamCalls.get());
+        }
+
+        @Test
+        public void testApplyMovieChange_UsesFetchTimeOfLowerTierCopy() {
+                tmdbService = createService(DataSize.ofMegabytes(1), false, true);
+                tmdbService.getMovie("27205");
+                long fetched = System.currentTimeMillis();
+                // Only the off-heap copy is left, as after the heap cache evicted it
+                ((TmdbCache) ReflectionTestUtils.getField(tmdbService, "tmdbCache")).invalidateAll();
+
+                assertEquals(TmdbService.ChangeOutcome.CURRENT, tmdbService.applyMovieChange("27205", fetched - 1000));
+                assertEquals(TmdbService.ChangeOutcome.EVICTED,
+                                tmdbService.applyMovieChange("27205", fetched + 1000));
+                assertEquals(TmdbService.ChangeOutcome.UNCACHED,
+                                tmdbService.applyMovieChange("27205", fetched + 1000));
+                assertEquals(1, upstreamCalls.get());
+        }
+
+        @Test
+        public void testWarm_LoadsWithoutCountingAnAccess() {
+                for (int i = 0; i < 2; i++) {
+                        tmdbService.recordAccess("movie:603");
+                        tmdbService.getMovie("603");
+                }
+                assertEquals(2, accessSketch.estimate("movie:603"));
+
+                assertTrue(tmdbService.warm("person:6384"));
+                assertEquals(0, accessSketch.estimate("person:6384"));
+                // Details and credits
+                assertEquals(3, upstreamCalls.get());
+                assertEquals(List.of("movie:603"), accessSketch.top("movie:", 10));
+        }
+
+        @Test
+        public void testGetMovie_MissingIdIsCountedButNotACandidate() {
+                tmdbService.recordAccess("movie:0");
+                assertNull(tmdbService.getMovie("0"));
+                tmdbService.recordAccess("movie:27205");
+                tmdbService.getMovie("27205");
+
+                assertEquals(1, accessSketch.estimate("movie:0"));
+                assertEquals(List.of("movie:27205"), accessSketch.top("movie:", 10));
+        }
+
+        @Test
+        public void testGetMovie_LeadCastAndDirectorArePrefetched() throws Exception {
+                TmdbService prefetchingService = createService(DataSize.ofMegabytes(1), true);
+                ReflectionTestUtils.setField(prefetchingService, "prefetchPeople", 1);
+
+                prefetchingService.getMovie("603");
+                // Keanu Reeves and Lana Wachowski, each with details and movie credits
+                long deadline = System.currentTimeMillis() + 5000;
+                while (prefetchCount("loaded") < 4 && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                }
+                assertEquals(4, prefetchCount("loaded"));
+                assertEquals(5, upstreamCalls.get());
+
+                assertEquals("Person 6384", prefetchingService.getPerson("6384").name());
+                assertEquals(5, upstreamCalls.get());
+                assertEquals(1, prefetchCount("hit"));
+        }
+
+        @Test
+        public void testGetMovies_BatchQueuesNoPeoplePrefetch() {
+                TmdbService prefetchingService = createService(DataSize.ofMegabytes(1), true);
+                ReflectionTestUtils.setField(prefetchingService, "prefetchPeople", 1);
+                MovieBatchService batchService = new MovieBatchService(prefetchingService, 2, 2,
+                                Duration.ofSeconds(5), meterRegistry);
+                try {
+                        assertEquals(1, batchService.getMovies(List.of("603")).results().size());
+
+                        assertEquals(0, prefetchCount("queued"));
+                        assertEquals(1, upstreamCalls.get());
+                } finally {
+                        batchService.stop();
+                }
+        }
+
+        private double prefetchCount(String outcome) {
+                return meterRegistry.counter("tmdb.prefetch", "outcome", outcome).count();
+        }
+
+        private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body)
+                        throws IOException {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                }
+        }
+}
@@ -0,0 +1,149 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.tmdb.TmdbMovieSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrendingMoviesServiceTest {
+
+        private static final List<TmdbMovieSummary> MOVIES = List.of(movie(603), movie(27205));
+
+        private TmdbService tmdbService;
+        private SimpleMeterRegistry meterRegistry;
+        private TrendingMoviesService trendingService;
+
+        @BeforeEach
+        public void setUp() {
+                tmdbService = Mockito.mock(TmdbService.class);
+                meterRegistry = new SimpleMeterRegistry();
+        }
+
+        @AfterEach
+        public void tearDown() {
+                if (trendingService != null) {
+                        trendingService.stop();
+                }
+        }
+
+        private TrendingMoviesService service(Duration refreshInterval, Duration retryMinDelay) {
+                trendingService = new TrendingMoviesService(tmdbService, new ObjectMapper(), refreshInterval,
+                                retryMinDelay, Duration.ofMillis(200), meterRegistry);
+                return trendingService;
+        }
+
+        private static TmdbMovieSummary movie(long id) {
+                return new TmdbMovieSummary(id, "Movie " + id, null, null, null, null, null, null, null, null, null);
+        }
+
+        private double refreshes(String outcome) {
+                return meterRegistry.get("tmdb.trending.refresh").tag("outcome", outcome).counter().count();
+        }
+
+        @Test
+        public void testGetSnapshot_FirstCallFetchesOnceAndIsServedAfterwards() {
+                Mockito.when(tmdbService.findTrendingMovies()).thenReturn(MOVIES);
+                TrendingMoviesService service = service(Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+                TrendingMoviesService.Snapshot first = service.getSnapshot();
+
+                assertEquals(MOVIES, first.movies());
+                assertSame(first, service.getSnapshot());
+                Mockito.verify(tmdbService, Mockito.times(1)).findTrendingMovies();
+        }
+
+        @Test
+        public void testGetSnapshot_FailedFirstFetchIsNotInstalled() throws Exception {
+                Mockito.when(tmdbService.findTrendingMovies()).thenReturn(null).thenReturn(MOVIES);
+                TrendingMoviesService service = service(Duration.ofMinutes(5), Duration.ofMillis(200));
+
+                assertNull(service.getSnapshot());
+                // Not retried synchronously before retry-min-delay has passed
+                assertNull(service.getSnapshot());
+                Mockito.verify(tmdbService, Mockito.times(1)).findTrendingMovies();
+
+                Thread.sleep(250);
+                assertEquals(MOVIES, service.getSnapshot().movies());
+        }
+
+        @Test
+        public void testGetSnapshot_ConcurrentCallersShareOneBoundedFetch() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                Mockito.when(tmdbService.findTrendingMovies()).thenAnswer(invocation -> {
+                        release.await();
+                        return MOVIES;
+                });
+                TrendingMoviesService service = service(Duration.ofMinutes(5), Duration.ofSeconds(5));
+                ExecutorService callers = Executors.newFixedThreadPool(4);
+                try {
+                        long started = System.nanoTime();
+                        List<Future<TrendingMoviesService.Snapshot>> snapshots = new ArrayList<>();
+                        for (int i = 0; i < 4; i++) {
+                                snapshots.add(callers.submit(service::getSnapshot));
+                        }
+                        for (Future<TrendingMoviesService.Snapshot> snapshot : snapshots) {
+                                assertNull(snapshot.get());
+                        }
+
+                        // Each gave up after the 200 ms wait instead of queueing behind the others
+                        assertTrue(System.nanoTime() - started < Duration.ofMillis(1000).toNanos());
+                        Mockito.verify(tmdbService, Mockito.times(1)).findTrendingMovies();
+
+                        release.countDown();
+                        assertEquals(MOVIES, service.getSnapshot().movies());
+                        Mockito.verify(tmdbService, Mockito.times(1)).findTrendingMovies();
+                } finally {
+                        release.countDown();
+                        callers.shutdownNow();
+                }
+        }
+
+        @Test
+        public void testRefresh_KeepsServingPreviousSnapshotWhileFailing() throws Exception {
+                Mockito.when(tmdbService.refreshTrendingMovies()).thenReturn(MOVIES).thenReturn(null);
+                TrendingMoviesService service = service(Duration.ofMillis(100), Duration.ofMillis(10));
+                service.start();
+
+                long deadline = System.currentTimeMillis() + 5000;
+                while (refreshes("failure") < 3 && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                }
+
+                TrendingMoviesService.Snapshot snapshot = service.getSnapshot();
+                assertNotNull(snapshot);
+                assertEquals(MOVIES, snapshot.movies());
+                assertEquals(1.0, refreshes("success"));
+                assertTrue(refreshes("failure") >= 3);
+                // Served from the background refresh, never from a request
+                Mockito.verify(tmdbService, Mockito.never()).findTrendingMovies();
+        }
+
+        @Test
+        public void testRetryDelay_GrowsExponentiallyUpToRefreshInterval() {
+                TrendingMoviesService service = service(Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+                for (int failures = 1; failures <= 10; failures++) {
+                        long backoff = Math.min(5000L << (failures - 1), Duration.ofMinutes(5).toMillis());
+                        long delay = service.retryDelay(failures);
+                        assertTrue(delay >= backoff / 2 && delay < backoff * 3 / 2,
+                                        failures + " failures: " + delay + " ms");
+                }
+        }
+}